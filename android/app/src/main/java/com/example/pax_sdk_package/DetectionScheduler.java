@@ -0,0 +1,81 @@
+package com.example.pax_sdk_package;
+
+import android.util.Log;
+
+import com.pax.dal.IPicc;
+import com.pax.dal.entity.EDetectMode;
+import com.pax.dal.entity.PiccCardInfo;
+
+/**
+ * DetectionScheduler - deadline-based card detection.
+ *
+ * Polls the reader with a short interval that backs off towards a ceiling, and
+ * returns as soon as a card is seen. The total time spent is bounded by the
+ * timeout rather than by a fixed number of attempts.
+ */
+public class DetectionScheduler {
+    private static final String TAG = "PAX_SDK";
+
+    public static final long DEFAULT_TIMEOUT_MS = 5000;
+    public static final long DEFAULT_INITIAL_INTERVAL_MS = 20;
+    public static final long MAX_INTERVAL_MS = 250;
+    private static final double BACKOFF_FACTOR = 1.5;
+
+    private final long timeoutMs;
+    private final long initialIntervalMs;
+
+    public DetectionScheduler(long timeoutMs, long initialIntervalMs) {
+        this.timeoutMs = Math.max(0, timeoutMs);
+        this.initialIntervalMs = Math.max(1, Math.min(initialIntervalMs, MAX_INTERVAL_MS));
+    }
+
+    /**
+     * Poll for a card until one is detected, the timeout expires or the token is cancelled
+     *
+     * @return the detected card, or null if none was seen before the deadline or cancellation
+     */
+    public PiccCardInfo detect(IPicc picc, EDetectMode mode, DetectionToken token) {
+        long startTime = System.nanoTime();
+        long deadline = startTime + timeoutMs * 1000000L;
+        long interval = initialIntervalMs;
+        int attempt = 0;
+
+        while (true) {
+            if (token.isCancelled()) {
+                Log.d(TAG, "Card detection cancelled after " + attempt + " attempts");
+                return null;
+            }
+
+            attempt++;
+            try {
+                PiccCardInfo info = picc.detect(mode);
+                if (info != null) {
+                    Log.d(TAG, "✓ Card detected on attempt " + attempt + " after "
+                            + (System.nanoTime() - startTime) / 1000000L + " ms");
+                    return info;
+                }
+            } catch (Exception e) {
+                // The SDK reports an empty field as an exception; keep polling
+                Log.v(TAG, "Detection attempt " + attempt + " failed: " + e.getMessage());
+            }
+
+            long remainingMs = (deadline - System.nanoTime()) / 1000000L;
+            if (remainingMs <= 0) {
+                Log.d(TAG, "No card detected after " + attempt + " attempts in " + timeoutMs + " ms");
+                return null;
+            }
+
+            try {
+                if (token.await(Math.min(interval, remainingMs))) {
+                    Log.d(TAG, "Card detection cancelled after " + attempt + " attempts");
+                    return null;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Log.d(TAG, "Card detection interrupted");
+                return null;
+            }
+            interval = Math.min(MAX_INTERVAL_MS, (long) Math.ceil(interval * BACKOFF_FACTOR));
+        }
+    }
+}
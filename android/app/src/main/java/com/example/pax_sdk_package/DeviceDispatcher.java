@@ -0,0 +1,130 @@
+package com.example.pax_sdk_package;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import io.flutter.plugin.common.MethodChannel.Result;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * DeviceDispatcher - runs plugin work off the platform thread.
+ *
+ * Each hardware device gets its own single-threaded lane so calls to the same
+ * device stay ordered, while a slow print never delays a card read. Results are
+ * always delivered back on the main looper as required by the Flutter engine.
+ */
+public class DeviceDispatcher {
+    private static final String TAG = "PAX_SDK";
+
+    /**
+     * Returned by a handler to signal that the method is not implemented
+     */
+    public static final Object NOT_IMPLEMENTED = new Object();
+
+    /**
+     * Serial execution lanes, one per hardware device, plus one for command
+     * batches, which wait on the device lanes so that no device lane ever has to
+     */
+    public enum Lane {
+        NFC,
+        PRINTER,
+        SYSTEM,
+        BATCH
+    }
+
+    private final Map<Lane, ScheduledExecutorService> lanes = new EnumMap<>(Lane.class);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public DeviceDispatcher() {
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, Executors.newSingleThreadScheduledExecutor(threadFactory(lane)));
+        }
+    }
+
+    /**
+     * Run work on the given lane and complete the Flutter result on the main thread
+     */
+    public void dispatch(Lane lane, Result result, Callable<Object> work) {
+        try {
+            executor(lane).execute(() -> {
+                Object value;
+                try {
+                    value = work.call();
+                } catch (IllegalArgumentException e) {
+                    Log.w(TAG, "Invalid argument on " + lane + " lane: " + e.getMessage());
+                    postToMain(() -> result.error("invalid_argument", e.getMessage(), null));
+                    return;
+                } catch (Throwable t) {
+                    Log.e(TAG, "Unhandled error on " + lane + " lane: ", t);
+                    postToMain(() -> result.error("native_error", t.getMessage(), null));
+                    return;
+                }
+
+                final Object reply = value;
+                postToMain(() -> {
+                    if (reply == NOT_IMPLEMENTED) {
+                        result.notImplemented();
+                    } else {
+                        result.success(reply);
+                    }
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Dispatcher is shut down, rejecting call on " + lane + " lane");
+            postToMain(() -> result.error("unavailable", "Plugin is detached from engine", null));
+        }
+    }
+
+    /**
+     * Submit work to a lane and return a future for callers that need to wait on it
+     */
+    public <T> Future<T> submit(Lane lane, Callable<T> work) {
+        return executor(lane).submit(work);
+    }
+
+    /**
+     * Get the executor backing a lane
+     */
+    public ScheduledExecutorService executor(Lane lane) {
+        return lanes.get(lane);
+    }
+
+    /**
+     * Post a runnable to the main looper
+     */
+    public void postToMain(Runnable runnable) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            runnable.run();
+        } else {
+            mainHandler.post(runnable);
+        }
+    }
+
+    /**
+     * Stop all lanes, letting queued work finish in the background
+     */
+    public void shutdown() {
+        for (ExecutorService executor : lanes.values()) {
+            executor.shutdown();
+        }
+    }
+
+    private static ThreadFactory threadFactory(Lane lane) {
+        String name = "pax-" + lane.name().toLowerCase();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.pax_sdk_package;
+
+import android.graphics.Bitmap;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * MonoPipeline - grayscale, contrast and threshold stages run in parallel.
+ *
+ * The contrast and threshold stages are folded into one 256-entry table
+ * indexed by luma, so each pixel costs a luma calculation and a lookup. The
+ * bitmap is split into tiles of rows that the raster worker pool converts
+ * with work stealing, every tile writing its own rows of one shared packed
+ * raster.
+ */
+public final class MonoPipeline {
+    /** Rows converted by one task before it stops splitting */
+    private static final int TILE_ROWS = 32;
+
+    private final boolean[] black = new boolean[256];
+
+    /**
+     * @param threshold luma (0-255) below which a pixel prints black, after contrast
+     * @param contrast  contrast factor around mid-gray; 1 leaves the image unchanged
+     */
+    public MonoPipeline(int threshold, float contrast) {
+        for (int luma = 0; luma < 256; luma++) {
+            int adjusted = Math.round((luma - 128) * contrast) + 128;
+            adjusted = Math.max(0, Math.min(255, adjusted));
+            black[luma] = adjusted < threshold;
+        }
+    }
+
+    /**
+     * Convert a bitmap to a packed raster on the raster worker pool
+     */
+    public MonoRaster toRaster(Bitmap bitmap) {
+        MonoRaster raster = new MonoRaster(bitmap.getWidth(), bitmap.getHeight());
+        TileTask task = new TileTask(bitmap, raster, 0, raster.height);
+        if (raster.height <= TILE_ROWS) {
+            // Not worth a hand-off to the pool
+            task.compute();
+        } else {
+            RasterWorkers.pool().invoke(task);
+        }
+        return raster;
+    }
+
+    @SuppressWarnings("serial")
+    private final class TileTask extends RecursiveAction {
+        private final Bitmap bitmap;
+        private final MonoRaster raster;
+        private final int fromRow;
+        private final int toRow;
+
+        TileTask(Bitmap bitmap, MonoRaster raster, int fromRow, int toRow) {
+            this.bitmap = bitmap;
+            this.raster = raster;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            int rows = toRow - fromRow;
+            if (rows > TILE_ROWS) {
+                int middle = fromRow + rows / 2;
+                invokeAll(new TileTask(bitmap, raster, fromRow, middle),
+                        new TileTask(bitmap, raster, middle, toRow));
+                return;
+            }
+
+            int width = raster.width;
+            int[] row = new int[width];
+            byte[] data = raster.data;
+            for (int y = fromRow; y < toRow; y++) {
+                bitmap.getPixels(row, 0, width, 0, y, width, 1);
+                int rowStart = y * raster.stride;
+                int bits = 0;
+                for (int x = 0; x < width; x++) {
+                    bits <<= 1;
+                    if (black[MonoRaster.luma(row[x])]) {
+                        bits |= 1;
+                    }
+                    if ((x & 7) == 7) {
+                        data[rowStart + (x >> 3)] = (byte) bits;
+                        bits = 0;
+                    }
+                }
+                if ((width & 7) != 0) {
+                    // Pad the last byte of the row with white
+                    data[rowStart + (width >> 3)] = (byte) (bits << (8 - (width & 7)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.pax_sdk_package;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+/**
+ * MonoRaster - packed 1-bit image, the format the thermal head actually prints.
+ *
+ * Rows are {@link #stride} bytes long, most significant bit first, with a set
+ * bit meaning a black dot. Padding bits at the end of a row are always white.
+ */
+public final class MonoRaster {
+    /** Default luma threshold; pixels darker than this print black */
+    public static final int DEFAULT_THRESHOLD = 128;
+
+    public final int width;
+    public final int height;
+    public final int stride;
+    public final byte[] data;
+
+    public MonoRaster(int width, int height) {
+        this(width, height, new byte[strideFor(width) * height]);
+    }
+
+    /**
+     * Wrap existing packed rows
+     */
+    public MonoRaster(int width, int height, byte[] data) {
+        if (width <= 0 || height < 0) {
+            throw new IllegalArgumentException("Invalid raster size " + width + "x" + height);
+        }
+        if (data.length < strideFor(width) * height) {
+            throw new IllegalArgumentException("Raster data too short for " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.stride = strideFor(width);
+        this.data = data;
+    }
+
+    /**
+     * Bytes per packed row for a width in dots
+     */
+    public static int strideFor(int width) {
+        return (width + 7) >> 3;
+    }
+
+    /**
+     * Threshold a bitmap into a packed raster, converting row tiles in parallel
+     *
+     * @param threshold luma (0-255) below which a pixel prints black
+     */
+    public static MonoRaster fromBitmap(Bitmap bitmap, int threshold) {
+        return new MonoPipeline(threshold, 1f).toRaster(bitmap);
+    }
+
+    /**
+     * Integer luma of an ARGB pixel, composited over white paper
+     */
+    public static int luma(int argb) {
+        int r = (argb >> 16) & 0xFF;
+        int g = (argb >> 8) & 0xFF;
+        int b = argb & 0xFF;
+        int luma = (77 * r + 150 * g + 29 * b) >> 8;
+
+        int alpha = argb >>> 24;
+        if (alpha == 0xFF) {
+            return luma;
+        }
+        // Transparent areas are paper, so blend towards white
+        return 255 - (((255 - luma) * alpha + 127) / 255);
+    }
+
+    /**
+     * Check if the dot at (x, y) is black
+     */
+    public boolean isBlack(int x, int y) {
+        return (data[y * stride + (x >> 3)] & (0x80 >> (x & 7))) != 0;
+    }
+
+    /**
+     * Check if row y has no black dots
+     */
+    public boolean isBlankRow(int y) {
+        int rowStart = y * stride;
+        for (int i = rowStart; i < rowStart + stride; i++) {
+            if (data[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Render rows starting at fromRow into target, filling target's full height
+     *
+     * @param rowPixels reusable buffer of at least width ints
+     */
+    public void drawRows(Bitmap target, int fromRow, int[] rowPixels) {
+        int rows = target.getHeight();
+        for (int y = 0; y < rows; y++) {
+            int rowStart = (fromRow + y) * stride;
+            for (int x = 0; x < width; x++) {
+                boolean black = (data[rowStart + (x >> 3)] & (0x80 >> (x & 7))) != 0;
+                rowPixels[x] = black ? Color.BLACK : Color.WHITE;
+            }
+            target.setPixels(rowPixels, 0, width, 0, y, width, 1);
+        }
+    }
+}
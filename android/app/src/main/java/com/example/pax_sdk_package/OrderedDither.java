@@ -0,0 +1,108 @@
+package com.example.pax_sdk_package;
+
+import android.graphics.Bitmap;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * OrderedDither - 8x8 Bayer ordered dithering split across row bands.
+ *
+ * Unlike error diffusion every pixel is decided on its own, so the image is
+ * cut into bands of rows that are converted in parallel on the raster worker
+ * pool, each writing its own rows of the packed output.
+ */
+public final class OrderedDither {
+    /** Rows converted by one task before it stops splitting */
+    private static final int BAND_ROWS = 64;
+
+    private static final int[] BAYER_8X8 = {
+             0, 32,  8, 40,  2, 34, 10, 42,
+            48, 16, 56, 24, 50, 18, 58, 26,
+            12, 44,  4, 36, 14, 46,  6, 38,
+            60, 28, 52, 20, 62, 30, 54, 22,
+             3, 35, 11, 43,  1, 33,  9, 41,
+            51, 19, 59, 27, 49, 17, 57, 25,
+            15, 47,  7, 39, 13, 45,  5, 37,
+            63, 31, 55, 23, 61, 29, 53, 21
+    };
+
+    /** Luma thresholds spread evenly over 0-255, one per matrix cell */
+    private static final int[] THRESHOLDS = new int[64];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            THRESHOLDS[i] = BAYER_8X8[i] * 4 + 2;
+        }
+    }
+
+    private OrderedDither() {
+    }
+
+    /**
+     * Dither a bitmap to a packed raster using the raster worker pool
+     */
+    public static MonoRaster toRaster(Bitmap bitmap) {
+        return toRaster(bitmap, 0);
+    }
+
+    /**
+     * Dither one band of a taller image
+     *
+     * @param firstRow row of the full image the band starts at, to keep the matrix phase
+     */
+    public static MonoRaster toRaster(Bitmap bitmap, int firstRow) {
+        MonoRaster raster = new MonoRaster(bitmap.getWidth(), bitmap.getHeight());
+        RasterWorkers.pool().invoke(new BandTask(bitmap, raster, firstRow, 0, raster.height));
+        return raster;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class BandTask extends RecursiveAction {
+        private final Bitmap bitmap;
+        private final MonoRaster raster;
+        private final int firstRow;
+        private final int fromRow;
+        private final int toRow;
+
+        BandTask(Bitmap bitmap, MonoRaster raster, int firstRow, int fromRow, int toRow) {
+            this.bitmap = bitmap;
+            this.raster = raster;
+            this.firstRow = firstRow;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            int rows = toRow - fromRow;
+            if (rows > BAND_ROWS) {
+                int middle = fromRow + rows / 2;
+                invokeAll(new BandTask(bitmap, raster, firstRow, fromRow, middle),
+                        new BandTask(bitmap, raster, firstRow, middle, toRow));
+                return;
+            }
+
+            int width = raster.width;
+            int[] row = new int[width];
+            for (int y = fromRow; y < toRow; y++) {
+                bitmap.getPixels(row, 0, width, 0, y, width, 1);
+                int thresholdRow = ((firstRow + y) & 7) << 3;
+                int rowStart = y * raster.stride;
+                int bits = 0;
+                for (int x = 0; x < width; x++) {
+                    bits <<= 1;
+                    if (MonoRaster.luma(row[x]) < THRESHOLDS[thresholdRow + (x & 7)]) {
+                        bits |= 1;
+                    }
+                    if ((x & 7) == 7) {
+                        raster.data[rowStart + (x >> 3)] = (byte) bits;
+                        bits = 0;
+                    }
+                }
+                if ((width & 7) != 0) {
+                    raster.data[rowStart + (width >> 3)] = (byte) (bits << (8 - (width & 7)));
+                }
+            }
+        }
+    }
+}
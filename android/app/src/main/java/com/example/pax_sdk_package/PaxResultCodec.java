@@ -0,0 +1,72 @@
+package com.example.pax_sdk_package;
+
+import io.flutter.plugin.common.StandardMessageCodec;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * PaxResultCodec - StandardMessageCodec with compact encodings for the hot results.
+ *
+ * Card results, print results, print job events and card events are written
+ * as a type byte followed by their fields in a fixed order, with no string
+ * keys and no intermediate maps. Everything else falls through to the
+ * standard encoding. The Dart side (PaxResultCodec in pax_sdk.dart) must read
+ * the fields in exactly the same order.
+ */
+public class PaxResultCodec extends StandardMessageCodec {
+    public static final PaxResultCodec INSTANCE = new PaxResultCodec();
+
+    static final byte CARD_RESULT = (byte) 128;
+    static final byte PRINT_RESULT = (byte) 129;
+    static final byte PRINTER_STATUS = (byte) 130;
+    static final byte PRINT_JOB_EVENT = (byte) 131;
+    static final byte CARD_EVENT = (byte) 132;
+
+    @Override
+    protected void writeValue(ByteArrayOutputStream stream, Object value) {
+        if (value instanceof CardResult) {
+            stream.write(CARD_RESULT);
+            writeCard(stream, (CardResult) value);
+        } else if (value instanceof PrintResult) {
+            PrintResult result = (PrintResult) value;
+            stream.write(result.statusReport ? PRINTER_STATUS : PRINT_RESULT);
+            writeValue(stream, result.success);
+            writeValue(stream, result.statusCode != PrintResult.NO_STATUS ? result.statusCode : null);
+            writeValue(stream, result.message);
+            writeValue(stream, result.error);
+        } else if (value instanceof PrintJobQueue.JobEvent) {
+            PrintJobQueue.JobEvent event = (PrintJobQueue.JobEvent) value;
+            stream.write(PRINT_JOB_EVENT);
+            writeValue(stream, event.jobId);
+            writeValue(stream, event.method);
+            writeValue(stream, event.status);
+            writeValue(stream, event.result);
+            writeValue(stream, event.error);
+            writeValue(stream, event.durationMs);
+        } else if (value instanceof CardEventStream.CardEvent) {
+            CardEventStream.CardEvent event = (CardEventStream.CardEvent) value;
+            stream.write(CARD_EVENT);
+            writeValue(stream, event.event);
+            writeValue(stream, event.uid);
+            writeValue(stream, event.timestamp);
+            writeValue(stream, event.card);
+        } else {
+            super.writeValue(stream, value);
+        }
+    }
+
+    private void writeCard(ByteArrayOutputStream stream, CardResult card) {
+        writeValue(stream, card.success);
+        writeValue(stream, card.cancelled);
+        writeValue(stream, card.error);
+        writeValue(stream, card.uid);
+        writeValue(stream, card.cardInfo);
+        writeValue(stream, card.cardType);
+        writeValue(stream, card.manufacturer);
+        writeValue(stream, card.block0);
+        writeValue(stream, card.keyIndex);
+        writeValue(stream, card.block0Error);
+        writeValue(stream, card.authAttempted);
+        writeValue(stream, card.authError);
+    }
+}
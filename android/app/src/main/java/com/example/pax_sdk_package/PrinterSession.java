@@ -0,0 +1,110 @@
+package com.example.pax_sdk_package;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.pax.dal.IDAL;
+import com.pax.dal.IPrinter;
+import com.pax.neptunelite.api.NeptuneLiteUser;
+
+/**
+ * PrinterSession - long-lived handle on the PAX printer.
+ *
+ * The DAL and printer are obtained and initialized once, on first use. The
+ * session stays valid across calls so font and spacing settings applied by one
+ * call are still in effect for the next; it is only re-initialized after a
+ * device error has been reported through {@link #invalidate()}.
+ */
+public class PrinterSession {
+    private static final String TAG = "PAX_SDK";
+
+    /** Print head width of the 58 mm heads in PAX's Android terminals */
+    public static final int DEFAULT_DOT_WIDTH = 384;
+    private static final int MIN_DOT_WIDTH = 200;
+    private static final int MAX_DOT_WIDTH = 1200;
+
+    private IDAL dal;
+    private IPrinter printer;
+    private boolean ready;
+    private int dotWidth = DEFAULT_DOT_WIDTH;
+
+    /**
+     * Check if the printer has been initialized and not invalidated since
+     */
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Get the initialized printer, initializing it first if needed
+     */
+    public synchronized IPrinter acquire(Context context) throws Exception {
+        if (ready) {
+            return printer;
+        }
+
+        if (dal == null) {
+            dal = NeptuneLiteUser.getInstance().getDal(context);
+            if (dal == null) {
+                throw new IllegalStateException("Failed to get DAL instance - DAL is null");
+            }
+        }
+        printer = dal.getPrinter();
+
+        // Initialize printer
+        printer.init();
+
+        // Check printer status
+        int status = printer.getStatus();
+        Log.d(TAG, "Printer status after init: " + status);
+
+        if (status != 0) {
+            Log.w(TAG, "Printer status not OK after init: " + status);
+            // Try to reset printer if it's in error state
+            try {
+                printer.init();
+                status = printer.getStatus();
+                Log.d(TAG, "Printer status after reset: " + status);
+            } catch (Exception resetException) {
+                Log.e(TAG, "Failed to reset printer: ", resetException);
+            }
+        }
+
+        ready = true;
+        Log.d(TAG, "Printer session initialized");
+        return printer;
+    }
+
+    /**
+     * Print head width in dots that images and text are laid out for.
+     *
+     * The DAL has no head width query (getDotLine reports the dot lines filled
+     * in the print buffer), so this is the 58 mm default unless the app has
+     * set the width of a wider printer with {@link #setDotWidth(int)}.
+     */
+    public synchronized int dotWidth() {
+        return dotWidth;
+    }
+
+    /**
+     * Set the print head width in dots
+     */
+    public synchronized void setDotWidth(int width) {
+        if (width < MIN_DOT_WIDTH || width > MAX_DOT_WIDTH) {
+            throw new IllegalArgumentException("Dot width must be between " + MIN_DOT_WIDTH + " and "
+                    + MAX_DOT_WIDTH + ", got " + width);
+        }
+        dotWidth = width;
+        Log.d(TAG, "Printer dot width set to " + width);
+    }
+
+    /**
+     * Mark the session as failed so the next call re-initializes the printer
+     */
+    public synchronized void invalidate() {
+        if (ready) {
+            Log.d(TAG, "Printer session invalidated, will re-initialize on next call");
+        }
+        ready = false;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.pax_sdk_package;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * RasterWorkers - shared ForkJoin pool for parallel image conversion.
+ *
+ * Created on first use and sized to the CPU count. The common pool is not
+ * used because it is only available from API 24.
+ */
+public final class RasterWorkers {
+    private RasterWorkers() {
+    }
+
+    private static final class Holder {
+        static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Get the shared pool
+     */
+    public static ForkJoinPool pool() {
+        return Holder.POOL;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.pax_sdk_package;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
+import android.util.Log;
+
+import com.pax.dal.exceptions.PrinterDevException;
+
+import java.io.IOException;
+
+/**
+ * BandDecoder - decodes a tall encoded image one horizontal band at a time.
+ *
+ * BitmapRegionDecoder reads only the source rows behind each band; the band is
+ * scaled to the print width, passed to the sink and returned to the pool
+ * before the next one is decoded. Peak memory is one band whatever the image height.
+ */
+public final class BandDecoder {
+    private static final String TAG = "PAX_SDK";
+
+    /** Output rows per band */
+    public static final int BAND_ROWS = 256;
+    /** Images taller than this, once scaled to the print width, are decoded in bands */
+    public static final int TALL_IMAGE_ROWS = 1024;
+
+    /**
+     * Receives decoded bands from top to bottom
+     */
+    public interface BandSink {
+        /**
+         * @param band     band scaled to the print width; reused after the call returns
+         * @param firstRow row of the full scaled image the band starts at
+         */
+        void append(Bitmap band, int firstRow) throws PrinterDevException;
+    }
+
+    private BandDecoder() {
+    }
+
+    /**
+     * Height of the image once scaled to targetWidth, from its header only
+     *
+     * @return the scaled height, or -1 if the bytes are not a supported image
+     */
+    public static int scaledHeight(byte[] data, int offset, int length, int targetWidth) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, offset, length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return -1;
+        }
+        if (options.outWidth <= targetWidth) {
+            return options.outHeight;
+        }
+        return Math.max(1, Math.round(options.outHeight * (float) targetWidth / options.outWidth));
+    }
+
+    /**
+     * Decode the image band by band into the sink
+     *
+     * @throws IOException if the format doesn't support region decoding, before any band is decoded
+     */
+    public static void decode(byte[] data, int offset, int length, int targetWidth, BitmapPool pool,
+                              BandSink sink) throws IOException, PrinterDevException {
+        BitmapRegionDecoder decoder = BitmapRegionDecoder.newInstance(data, offset, length, false);
+        try {
+            int sourceWidth = decoder.getWidth();
+            int sourceHeight = decoder.getHeight();
+            int outputWidth = Math.min(sourceWidth, targetWidth);
+            float scale = outputWidth / (float) sourceWidth;
+            int outputHeight = Math.max(1, Math.round(sourceHeight * scale));
+
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inSampleSize = ScaledDecoder.sampleSizeFor(sourceWidth, targetWidth);
+            options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+
+            Rect region = new Rect();
+            for (int row = 0; row < outputHeight; row += BAND_ROWS) {
+                int rows = Math.min(BAND_ROWS, outputHeight - row);
+                int top = (int) Math.floor(row / scale);
+                int bottom = Math.min(sourceHeight, (int) Math.ceil((row + rows) / scale));
+                region.set(0, top, sourceWidth, Math.max(bottom, top + 1));
+
+                options.inBitmap = pool.inBitmapFor(ScaledDecoder.sampled(region.width(), options.inSampleSize),
+                        ScaledDecoder.sampled(region.height(), options.inSampleSize), options.inPreferredConfig);
+                Bitmap decoded = decodeRegion(decoder, region, options);
+                if (decoded == null) {
+                    throw new IllegalStateException("Failed to decode image rows " + top + "-" + bottom);
+                }
+                Bitmap band = pool.scaled(decoded, outputWidth, rows);
+                if (band != decoded) {
+                    pool.release(decoded);
+                }
+                try {
+                    sink.append(band, row);
+                } finally {
+                    // The sink has copied the band into the print buffer or a raster by now
+                    pool.release(band);
+                }
+            }
+            Log.d(TAG, "Decoded " + sourceWidth + "x" + sourceHeight + " image in bands of " + BAND_ROWS
+                    + " rows at " + outputWidth + "x" + outputHeight);
+        } finally {
+            decoder.recycle();
+        }
+    }
+
+    private static Bitmap decodeRegion(BitmapRegionDecoder decoder, Rect region, BitmapFactory.Options options) {
+        Bitmap reuse = options.inBitmap;
+        try {
+            return decoder.decodeRegion(region, options);
+        } catch (IllegalArgumentException e) {
+            if (reuse == null) {
+                throw e;
+            }
+            // The decoder refused the pooled bitmap; allocate a fresh one instead
+            reuse.recycle();
+            options.inBitmap = null;
+            return decoder.decodeRegion(region, options);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.pax_sdk_package;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * BitmapPool - reusable bitmaps for image decodes and canvas renders.
+ *
+ * Idle bitmaps are bucketed by allocation size in powers of two. A borrowed
+ * bitmap is reconfigured to the requested size in place, or handed to the
+ * decoder as inBitmap, so once the first few receipts have warmed the pool a
+ * shift of print jobs runs without new native allocations.
+ *
+ * Bitmaps can come back to the pool as soon as printBitmap() returns. The DAL
+ * printer renders a bitmap into its own dot buffer during the call and keeps
+ * no reference to it. That is also what lets the band paths (RasterPrinter,
+ * ImageJob, BandDecoder) reuse or recycle one band bitmap across printBitmap
+ * calls before start(). Every path in the plugin follows this one model.
+ */
+public final class BitmapPool {
+    private static final String TAG = "PAX_SDK";
+
+    /** Most bytes kept idle in the pool; larger buckets are recycled first past this */
+    static final int MAX_POOL_BYTES = 8 * 1024 * 1024;
+    /** Don't serve a request from a bitmap more than this many times its size */
+    private static final int MAX_OVERSIZE = 4;
+
+    private final TreeMap<Integer, ArrayDeque<Bitmap>> buckets = new TreeMap<>();
+    private int pooledBytes;
+
+    /**
+     * Borrow a mutable bitmap of exactly this size, cleared to white paper
+     */
+    public synchronized Bitmap get(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap = take(width, height, config);
+        if (bitmap != null) {
+            try {
+                bitmap.reconfigure(width, height, config);
+            } catch (IllegalArgumentException e) {
+                bitmap.recycle();
+                bitmap = null;
+            }
+        }
+        if (bitmap == null) {
+            bitmap = Bitmap.createBitmap(width, height, config);
+        }
+        bitmap.eraseColor(Color.WHITE);
+        return bitmap;
+    }
+
+    /**
+     * Borrow a bitmap large enough to decode an image of this size into, for
+     * BitmapFactory.Options.inBitmap
+     *
+     * @return a pooled bitmap, or null if none fits and the decoder should allocate
+     */
+    public synchronized Bitmap inBitmapFor(int width, int height, Bitmap.Config config) {
+        return take(width, height, config);
+    }
+
+    /**
+     * Scale a bitmap into a pooled one with bilinear filtering
+     *
+     * @return the scaled copy, or source itself if it already has this size
+     */
+    public Bitmap scaled(Bitmap source, int width, int height) {
+        if (source.getWidth() == width && source.getHeight() == height) {
+            return source;
+        }
+        Bitmap.Config config = source.getConfig() != null ? source.getConfig() : Bitmap.Config.ARGB_8888;
+        Bitmap target = get(width, height, config);
+        new Canvas(target).drawBitmap(source, null, new Rect(0, 0, width, height),
+                new Paint(Paint.FILTER_BITMAP_FLAG));
+        return target;
+    }
+
+    /**
+     * Return a bitmap that is no longer referenced
+     */
+    public synchronized void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        int bytes = bitmap.getAllocationByteCount();
+        if (!bitmap.isMutable() || bytes > MAX_POOL_BYTES) {
+            bitmap.recycle();
+            return;
+        }
+
+        // Make room by dropping the biggest idle bitmaps first
+        while (pooledBytes + bytes > MAX_POOL_BYTES && !buckets.isEmpty()) {
+            Map.Entry<Integer, ArrayDeque<Bitmap>> largest = buckets.lastEntry();
+            Bitmap evicted = largest.getValue().poll();
+            if (largest.getValue().isEmpty()) {
+                buckets.remove(largest.getKey());
+            }
+            pooledBytes -= evicted.getAllocationByteCount();
+            evicted.recycle();
+        }
+
+        int bucket = Integer.highestOneBit(bytes);
+        ArrayDeque<Bitmap> idle = buckets.get(bucket);
+        if (idle == null) {
+            idle = new ArrayDeque<>();
+            buckets.put(bucket, idle);
+        }
+        idle.push(bitmap);
+        pooledBytes += bytes;
+    }
+
+    /**
+     * Recycle everything the pool holds
+     */
+    public synchronized void clear() {
+        for (ArrayDeque<Bitmap> idle : buckets.values()) {
+            for (Bitmap bitmap : idle) {
+                bitmap.recycle();
+            }
+        }
+        Log.d(TAG, "Bitmap pool cleared, " + pooledBytes + " bytes freed");
+        buckets.clear();
+        pooledBytes = 0;
+    }
+
+    private Bitmap take(int width, int height, Bitmap.Config config) {
+        int needed = width * height * bytesPerPixel(config);
+        int smallest = needed <= 1 ? 1 : Integer.highestOneBit(needed - 1) << 1;
+
+        // Buckets hold bitmaps of at least their key bytes, so any bucket from the rounded-up size fits
+        Map.Entry<Integer, ArrayDeque<Bitmap>> entry = buckets.ceilingEntry(smallest);
+        if (entry == null || entry.getKey() / MAX_OVERSIZE > smallest) {
+            // Also check the bucket just below; its larger members may still fit
+            entry = buckets.floorEntry(smallest - 1);
+            if (entry == null || entry.getValue().peek().getAllocationByteCount() < needed) {
+                return null;
+            }
+        }
+
+        Bitmap bitmap = entry.getValue().pop();
+        if (entry.getValue().isEmpty()) {
+            buckets.remove(entry.getKey());
+        }
+        pooledBytes -= bitmap.getAllocationByteCount();
+        return bitmap;
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        switch (config) {
+            case ALPHA_8:
+                return 1;
+            case RGB_565:
+            case ARGB_4444:
+                return 2;
+            default:
+                return 4;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.pax_sdk_package;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * CommandBatch - runs a list of plugin methods from one platform-channel call.
+ *
+ * Entries run in order through the normal method handlers. Consecutive entries
+ * for the same device lane are handed to that lane as one task, so a receipt
+ * made of formatting, print, feed and cut calls costs a single thread hop.
+ */
+public class CommandBatch {
+    private static final String TAG = "PAX_SDK";
+
+    /**
+     * Resolves and runs single plugin methods
+     */
+    public interface Commands {
+        DeviceDispatcher.Lane laneFor(String method);
+
+        Object handle(String method, Map<String, Object> arguments) throws Exception;
+    }
+
+    private final DeviceDispatcher dispatcher;
+    private final Commands commands;
+
+    public CommandBatch(DeviceDispatcher dispatcher, Commands commands) {
+        this.dispatcher = dispatcher;
+        this.commands = commands;
+    }
+
+    /**
+     * Run the entries in order. Must be called on the batch lane, which is free
+     * to block while each group runs on its device lane.
+     *
+     * @param entries     maps with a "method" name and optional "args"
+     * @param stopOnError skip the remaining entries after the first failure
+     */
+    public Map<String, Object> execute(List<Map<String, Object>> entries, boolean stopOnError) {
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("Batch has no entries");
+        }
+
+        // Validate everything up front so a bad entry doesn't leave a half-run batch
+        String[] methods = new String[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            Map<String, Object> entry = entries.get(i);
+            String method = entry != null ? (String) entry.get("method") : null;
+            if (method == null) {
+                throw new IllegalArgumentException("Batch entry " + i + " has no method");
+            }
+            if ("executeBatch".equals(method) || "submitPrintJob".equals(method)) {
+                throw new IllegalArgumentException(method + " cannot be batched");
+            }
+            methods[i] = method;
+        }
+
+        List<Object> results = new ArrayList<>(entries.size());
+        int failures = 0;
+        int start = 0;
+        while (start < entries.size()) {
+            DeviceDispatcher.Lane lane = commands.laneFor(methods[start]);
+            int end = start + 1;
+            while (end < entries.size() && commands.laneFor(methods[end]) == lane) {
+                end++;
+            }
+
+            final int from = start;
+            final int to = end;
+            List<Object> groupResults;
+            try {
+                groupResults = dispatcher.submit(lane, () -> runGroup(entries, methods, from, to, stopOnError)).get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Batch failed on " + lane + " lane", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Batch interrupted", e);
+            }
+
+            for (Object result : groupResults) {
+                if (PrintJobQueue.isFailedResult(result)) {
+                    failures++;
+                }
+            }
+            results.addAll(groupResults);
+
+            if (stopOnError && failures > 0) {
+                break;
+            }
+            start = end;
+        }
+
+        Log.d(TAG, "Batch ran " + results.size() + "/" + entries.size() + " entries, " + failures + " failed");
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", failures == 0 && results.size() == entries.size());
+        result.put("results", results);
+        result.put("completed", results.size());
+        result.put("failed", failures);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> runGroup(List<Map<String, Object>> entries, String[] methods, int from, int to,
+                                  boolean stopOnError) {
+        List<Object> results = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            Map<String, Object> arguments = (Map<String, Object>) entries.get(i).get("args");
+            Object result = runEntry(methods[i], arguments);
+            results.add(result);
+            if (stopOnError && PrintJobQueue.isFailedResult(result)) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    private Object runEntry(String method, Map<String, Object> arguments) {
+        try {
+            Object result = commands.handle(method, arguments);
+            if (result == DeviceDispatcher.NOT_IMPLEMENTED) {
+                return failure("Method not implemented: " + method);
+            }
+            return result;
+        } catch (Exception e) {
+            Log.e(TAG, "Batch entry " + method + " failed: ", e);
+            return failure(e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> failure(String error) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", false);
+        result.put("error", error);
+        return result;
+    }
+}
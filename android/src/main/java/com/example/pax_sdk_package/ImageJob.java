@@ -0,0 +1,280 @@
+package com.example.pax_sdk_package;
+
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import com.pax.dal.IPrinter;
+import com.pax.dal.exceptions.PrinterDevException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ImageJob - an image uploaded from Dart in chunks.
+ *
+ * An encoded job (PNG, JPEG, ...) is copied into a buffer sized up front from
+ * the declared length and decoded once on commit. A raster job carries packed
+ * 1-bit rows (MSB first, 1 = black) that are printed band by band as they
+ * arrive, so only one band is ever held in memory whatever the image height.
+ * Those bands sit in the shared printer buffer until commit, so only one
+ * raster job can be open at a time, and the plugin turns away other printer
+ * calls until it ends.
+ */
+public class ImageJob {
+    private static final String TAG = "PAX_SDK";
+
+    /** Largest encoded payload accepted, to keep the pre-sized buffer bounded */
+    static final int MAX_ENCODED_BYTES = 16 * 1024 * 1024;
+    private static final int BAND_ROWS = RasterPrinter.BAND_ROWS;
+    /** Rows buffered in the printer before they are flushed with start() */
+    static final int FLUSH_ROWS = 1024;
+
+    /**
+     * Payload format of a job
+     */
+    public enum Format {
+        ENCODED,
+        RASTER
+    }
+
+    private final long id;
+    private final Format format;
+    private final IPrinter printer;
+
+    // Encoded jobs
+    private byte[] encoded;
+    private int encodedLength;
+
+    // Raster jobs
+    private final int width;
+    private final int stride;
+    private byte[] band;
+    private int bandBytes;
+    private int[] rowPixels;
+    private Bitmap bandBitmap;
+    private int bufferedRows;
+    private int printedRows;
+
+    private ImageJob(long id, Format format, IPrinter printer, int totalBytes, int width) {
+        this.id = id;
+        this.format = format;
+        this.printer = printer;
+        this.width = width;
+        this.stride = MonoRaster.strideFor(width);
+        if (format == Format.ENCODED) {
+            encoded = new byte[totalBytes];
+        } else {
+            band = new byte[stride * BAND_ROWS];
+            rowPixels = new int[width];
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Add the next chunk of the payload
+     */
+    public void append(byte[] chunk) throws PrinterDevException {
+        if (format == Format.ENCODED) {
+            if (encodedLength + chunk.length > encoded.length) {
+                throw new IllegalArgumentException("Image job " + id + " exceeds its declared size of "
+                        + encoded.length + " bytes");
+            }
+            System.arraycopy(chunk, 0, encoded, encodedLength, chunk.length);
+            encodedLength += chunk.length;
+            return;
+        }
+
+        int offset = 0;
+        while (offset < chunk.length) {
+            int count = Math.min(chunk.length - offset, band.length - bandBytes);
+            System.arraycopy(chunk, offset, band, bandBytes, count);
+            bandBytes += count;
+            offset += count;
+            if (bandBytes == band.length) {
+                printBand(BAND_ROWS);
+            }
+        }
+    }
+
+    /**
+     * Encoded payload once every chunk has arrived
+     */
+    public byte[] encodedBytes() {
+        if (encodedLength != encoded.length) {
+            throw new IllegalArgumentException("Image job " + id + " is incomplete: received "
+                    + encodedLength + " of " + encoded.length + " bytes");
+        }
+        return encoded;
+    }
+
+    /**
+     * Print the rows still held by a raster job and flush the printer
+     *
+     * @return printer status from start(), 0 on success
+     */
+    public int finishRaster() throws PrinterDevException {
+        if (bandBytes % stride != 0) {
+            throw new IllegalArgumentException("Image job " + id + " ends with a partial row");
+        }
+        if (bandBytes > 0) {
+            printBand(bandBytes / stride);
+        }
+        int status = bufferedRows > 0 ? printer.start() : 0;
+        bufferedRows = 0;
+        Log.d(TAG, "Raster image job " + id + " printed " + printedRows + " rows");
+        return status;
+    }
+
+    /**
+     * Check if bands were handed to the printer but not flushed with start() yet
+     */
+    public boolean hasBufferedRows() {
+        return bufferedRows > 0;
+    }
+
+    /**
+     * Drop buffers held by the job
+     */
+    public void release() {
+        encoded = null;
+        band = null;
+        rowPixels = null;
+        if (bandBitmap != null) {
+            bandBitmap.recycle();
+            bandBitmap = null;
+        }
+    }
+
+    private void printBand(int rows) throws PrinterDevException {
+        Bitmap bitmap;
+        if (rows == BAND_ROWS) {
+            if (bandBitmap == null) {
+                bandBitmap = Bitmap.createBitmap(width, BAND_ROWS, Bitmap.Config.ARGB_8888);
+            }
+            bitmap = bandBitmap;
+        } else {
+            bitmap = Bitmap.createBitmap(width, rows, Bitmap.Config.ARGB_8888);
+        }
+
+        new MonoRaster(width, rows, band).drawRows(bitmap, 0, rowPixels);
+
+        printer.printBitmap(bitmap);
+        if (bitmap != bandBitmap) {
+            bitmap.recycle();
+        }
+
+        bandBytes = 0;
+        printedRows += rows;
+        bufferedRows += rows;
+        if (bufferedRows >= FLUSH_ROWS) {
+            // Keep the printer's own buffer bounded on very tall images
+            int status = printer.start();
+            if (status != 0) {
+                throw new IllegalStateException("Print failed with status: " + status);
+            }
+            bufferedRows = 0;
+        }
+    }
+
+    /**
+     * Registry - open image jobs by id
+     */
+    public static class Registry {
+        private static final int MAX_OPEN_JOBS = 4;
+
+        private final Map<Long, ImageJob> open = new ConcurrentHashMap<>();
+        private final AtomicLong nextId = new AtomicLong(1);
+
+        /**
+         * Open a new job
+         *
+         * @param totalBytes declared payload size for encoded jobs
+         * @param width      row width in dots for raster jobs
+         */
+        public ImageJob begin(Format format, IPrinter printer, int totalBytes, int width) {
+            if (format == Format.ENCODED && (totalBytes <= 0 || totalBytes > MAX_ENCODED_BYTES)) {
+                throw new IllegalArgumentException("totalBytes must be between 1 and " + MAX_ENCODED_BYTES);
+            }
+            if (format == Format.RASTER && width <= 0) {
+                throw new IllegalArgumentException("width must be positive for raster jobs");
+            }
+            if (open.size() >= MAX_OPEN_JOBS) {
+                throw new IllegalStateException("Too many open image jobs (" + MAX_OPEN_JOBS + ")");
+            }
+            ImageJob raster = openRaster();
+            if (format == Format.RASTER && raster != null) {
+                throw new IllegalStateException("Raster image job " + raster.id + " is still open");
+            }
+
+            ImageJob job = new ImageJob(nextId.getAndIncrement(), format, printer, totalBytes, width);
+            open.put(job.id, job);
+            Log.d(TAG, "Image job " + job.id + " started (" + format.name().toLowerCase() + ")");
+            return job;
+        }
+
+        /**
+         * Look up an open job
+         */
+        public ImageJob get(long id) {
+            ImageJob job = open.get(id);
+            if (job == null) {
+                throw new IllegalArgumentException("Unknown image job: " + id);
+            }
+            return job;
+        }
+
+        /**
+         * Look up a job that may already have ended
+         *
+         * @return the job, or null if it is not open
+         */
+        public ImageJob find(long id) {
+            return open.get(id);
+        }
+
+        /**
+         * The open raster job, which owns the printer buffer until it ends
+         *
+         * @return the job, or null if no raster job is open
+         */
+        public ImageJob openRaster() {
+            for (ImageJob job : open.values()) {
+                if (job.format == Format.RASTER) {
+                    return job;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Close a job and free its buffers
+         *
+         * @return true if the job was open
+         */
+        public boolean end(long id) {
+            ImageJob job = open.remove(id);
+            if (job == null) {
+                return false;
+            }
+            job.release();
+            return true;
+        }
+
+        /**
+         * Close every open job
+         */
+        public void clear() {
+            for (Long id : open.keySet()) {
+                end(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.pax_sdk_package;
+
+import android.graphics.Bitmap;
+
+import com.pax.dal.IPrinter;
+import com.pax.dal.exceptions.PrinterDevException;
+
+/**
+ * PreparedImage - an image already decoded, scaled and converted for printing.
+ *
+ * Holds either a packed 1-bit raster, or a bitmap that the PAX SDK prints
+ * as is or with its own mono threshold. Appending it again skips decoding
+ * and conversion entirely.
+ */
+public final class PreparedImage {
+    /** Print the bitmap as is rather than through the SDK's mono threshold */
+    static final int NO_GRAY_THRESHOLD = -1;
+
+    private final MonoRaster raster;
+    private final Bitmap bitmap;
+    private final int grayThreshold;
+
+    private PreparedImage(MonoRaster raster, Bitmap bitmap, int grayThreshold) {
+        this.raster = raster;
+        this.bitmap = bitmap;
+        this.grayThreshold = grayThreshold;
+    }
+
+    /**
+     * A raster converted on our side
+     */
+    public static PreparedImage ofRaster(MonoRaster raster) {
+        return new PreparedImage(raster, null, NO_GRAY_THRESHOLD);
+    }
+
+    /**
+     * A bitmap converted by the SDK when printed. The image takes ownership of it.
+     *
+     * @param grayThreshold SDK mono threshold, or {@link #NO_GRAY_THRESHOLD}
+     */
+    public static PreparedImage ofBitmap(Bitmap bitmap, int grayThreshold) {
+        return new PreparedImage(null, bitmap, grayThreshold);
+    }
+
+    /**
+     * Add the image to the print buffer. The caller still has to call start().
+     */
+    public void appendTo(IPrinter printer) throws PrinterDevException {
+        if (raster != null) {
+            RasterPrinter.append(printer, raster);
+        } else if (grayThreshold != NO_GRAY_THRESHOLD) {
+            printer.printBitmapWithMonoThreshold(bitmap, grayThreshold);
+        } else {
+            printer.printBitmap(bitmap);
+        }
+    }
+
+    /**
+     * Height in dots
+     */
+    public int height() {
+        return raster != null ? raster.height : bitmap.getHeight();
+    }
+
+    /**
+     * Memory held by the image
+     */
+    public int byteCount() {
+        return raster != null ? raster.data.length : bitmap.getAllocationByteCount();
+    }
+
+    /**
+     * Give the bitmap back to the pool; see {@link BitmapPool} for why this is safe once appended
+     */
+    public void release(BitmapPool pool) {
+        if (bitmap != null) {
+            pool.release(bitmap);
+        }
+    }
+}
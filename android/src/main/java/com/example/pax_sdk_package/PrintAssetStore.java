@@ -0,0 +1,148 @@
+package com.example.pax_sdk_package;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * PrintAssetStore - images and text blocks registered once and printed by id.
+ *
+ * Assets are kept as packed 1-bit rasters, so printing one sends no payload
+ * over the platform channel and does no decoding or conversion. Persisted
+ * assets are also written to a directory under the app's files dir and are
+ * loaded back lazily the first time they are printed after a restart.
+ */
+public class PrintAssetStore {
+    private static final String TAG = "PAX_SDK";
+
+    /** Most assets held in memory at once */
+    static final int MAX_ASSETS = 64;
+    private static final int FILE_MAGIC = 0x50585231; // "PXR1"
+    private static final String FILE_SUFFIX = ".raster";
+    private static final int MAX_FILE_DIMENSION = 1 << 14;
+    /** Ids double as file names, so keep them to a safe character set */
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+
+    private final File directory;
+    private final Map<String, MonoRaster> assets = new ConcurrentHashMap<>();
+
+    public PrintAssetStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Register an asset, replacing any asset with the same id
+     *
+     * @param persist also write it to disk so it survives restarts
+     * @throws IOException if it could not be persisted; it is still registered in memory
+     */
+    public void put(String id, MonoRaster raster, boolean persist) throws IOException {
+        checkId(id);
+        if (!assets.containsKey(id) && assets.size() >= MAX_ASSETS) {
+            throw new IllegalStateException("Too many print assets (" + MAX_ASSETS + ")");
+        }
+
+        assets.put(id, raster);
+        Log.d(TAG, "Print asset " + id + " registered: " + raster.width + "x" + raster.height
+                + (persist ? ", persisted" : ""));
+        if (persist) {
+            write(id, raster);
+        } else {
+            // A stale copy on disk would come back after a restart
+            fileFor(id).delete();
+        }
+    }
+
+    /**
+     * Get an asset, loading it from disk if it was persisted by an earlier run
+     *
+     * @return the raster, or null if no asset has this id
+     * @throws IllegalStateException if the persisted copy can't be read
+     */
+    public MonoRaster get(String id) {
+        checkId(id);
+        MonoRaster raster = assets.get(id);
+        if (raster != null) {
+            return raster;
+        }
+
+        File file = fileFor(id);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            raster = read(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load print asset " + id + ": " + e.getMessage(), e);
+        }
+        assets.put(id, raster);
+        return raster;
+    }
+
+    /**
+     * Remove an asset from memory and disk
+     *
+     * @return true if the asset existed
+     */
+    public boolean remove(String id) {
+        checkId(id);
+        boolean inMemory = assets.remove(id) != null;
+        boolean onDisk = fileFor(id).delete();
+        return inMemory || onDisk;
+    }
+
+    private void write(String id, MonoRaster raster) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+
+        // Write to a temporary file first so a crash never leaves a truncated asset
+        File temp = new File(directory, id + FILE_SUFFIX + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(raster.width);
+            out.writeInt(raster.height);
+            out.write(raster.data, 0, raster.stride * raster.height);
+        }
+        if (!temp.renameTo(fileFor(id))) {
+            temp.delete();
+            throw new IOException("Cannot save print asset " + id);
+        }
+    }
+
+    private static MonoRaster read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a print asset: " + file.getName());
+            }
+            int width = in.readInt();
+            int height = in.readInt();
+            if (width <= 0 || width > MAX_FILE_DIMENSION || height <= 0 || height > MAX_FILE_DIMENSION) {
+                throw new IOException("Corrupt print asset: " + file.getName());
+            }
+            byte[] data = new byte[MonoRaster.strideFor(width) * height];
+            in.readFully(data);
+            return new MonoRaster(width, height, data);
+        }
+    }
+
+    private File fileFor(String id) {
+        return new File(directory, id + FILE_SUFFIX);
+    }
+
+    private static void checkId(String id) {
+        if (id == null || !VALID_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid asset id: " + id);
+        }
+    }
+}
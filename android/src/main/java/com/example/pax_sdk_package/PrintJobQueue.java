@@ -0,0 +1,221 @@
+package com.example.pax_sdk_package;
+
+import android.util.Log;
+
+import io.flutter.plugin.common.EventChannel;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * PrintJobQueue - bounded FIFO of print jobs executed on the printer lane.
+ *
+ * Submitting a job returns its id straight away; the job itself runs later on
+ * the single printer thread, so jobs never interleave with each other. When the
+ * queue is full a submission is either rejected or held until a slot frees up,
+ * depending on the overflow policy. Each finished job is reported on the
+ * print job event stream.
+ */
+public class PrintJobQueue implements EventChannel.StreamHandler {
+    private static final String TAG = "PAX_SDK";
+    private static final int DEFAULT_CAPACITY = 32;
+
+    /**
+     * What to do with a submission when the queue is full
+     */
+    public enum OverflowPolicy {
+        REJECT,
+        BLOCK
+    }
+
+    /**
+     * Runs one print job on the printer lane
+     */
+    public interface JobRunner {
+        Object run(String method, Map<String, Object> arguments) throws Exception;
+    }
+
+    /**
+     * Receives the outcome of a submission
+     */
+    public interface SubmitCallback {
+        void onAccepted(long jobId);
+
+        void onRejected(String reason);
+    }
+
+    /**
+     * Completion of one job, sent on the print job event stream
+     */
+    static final class JobEvent {
+        final long jobId;
+        final String method;
+        String status;
+        Object result;
+        String error;
+        long durationMs;
+
+        JobEvent(long jobId, String method) {
+            this.jobId = jobId;
+            this.method = method;
+        }
+    }
+
+    private static final class PendingSubmit {
+        final String method;
+        final Map<String, Object> arguments;
+        final SubmitCallback callback;
+
+        PendingSubmit(String method, Map<String, Object> arguments, SubmitCallback callback) {
+            this.method = method;
+            this.arguments = arguments;
+            this.callback = callback;
+        }
+    }
+
+    private final DeviceDispatcher dispatcher;
+    private final JobRunner runner;
+    private final ArrayDeque<PendingSubmit> blocked = new ArrayDeque<>();
+
+    private EventChannel.EventSink eventSink;
+    private int capacity = DEFAULT_CAPACITY;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
+    private int queued;
+    private long nextJobId = 1;
+
+    public PrintJobQueue(DeviceDispatcher dispatcher, JobRunner runner) {
+        this.dispatcher = dispatcher;
+        this.runner = runner;
+    }
+
+    /**
+     * Submit a job. The callback is told the job id once the job has a slot in the queue.
+     */
+    public synchronized void submit(String method, Map<String, Object> arguments, SubmitCallback callback) {
+        PendingSubmit submit = new PendingSubmit(method, arguments, callback);
+
+        if (queued < capacity && blocked.isEmpty()) {
+            admit(submit);
+        } else if (overflowPolicy == OverflowPolicy.BLOCK) {
+            Log.d(TAG, "Print queue full (" + queued + "/" + capacity + "), holding " + method);
+            blocked.addLast(submit);
+        } else {
+            Log.w(TAG, "Print queue full (" + queued + "/" + capacity + "), rejecting " + method);
+            callback.onRejected("Print queue is full (" + capacity + " jobs)");
+        }
+    }
+
+    /**
+     * Set the queue capacity and overflow policy
+     */
+    public synchronized void configure(int capacity, OverflowPolicy overflowPolicy) {
+        this.capacity = Math.max(1, capacity);
+        this.overflowPolicy = overflowPolicy;
+        drainBlocked();
+    }
+
+    /**
+     * Snapshot of the queue state for the method channel
+     */
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("queued", queued);
+        result.put("blocked", blocked.size());
+        result.put("capacity", capacity);
+        result.put("overflowPolicy", overflowPolicy.name().toLowerCase());
+        result.put("nextJobId", nextJobId);
+        return result;
+    }
+
+    /**
+     * Reject every submission still waiting for a slot
+     */
+    public synchronized void close() {
+        eventSink = null;
+        while (!blocked.isEmpty()) {
+            blocked.removeFirst().callback.onRejected("Print queue closed");
+        }
+    }
+
+    @Override
+    public synchronized void onListen(Object arguments, EventChannel.EventSink events) {
+        eventSink = events;
+    }
+
+    @Override
+    public synchronized void onCancel(Object arguments) {
+        eventSink = null;
+    }
+
+    /**
+     * Check if a handler result reports a failure
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean isFailedResult(Object result) {
+        if (result instanceof PrintResult) {
+            return !((PrintResult) result).success;
+        }
+        if (result instanceof CardResult) {
+            return !((CardResult) result).success;
+        }
+        if (result instanceof Map) {
+            Object success = ((Map<String, Object>) result).get("success");
+            return Boolean.FALSE.equals(success);
+        }
+        return false;
+    }
+
+    private void admit(PendingSubmit submit) {
+        final long jobId = nextJobId++;
+        try {
+            dispatcher.executor(DeviceDispatcher.Lane.PRINTER).execute(() -> runJob(jobId, submit));
+        } catch (RejectedExecutionException e) {
+            submit.callback.onRejected("Printer lane is shut down");
+            return;
+        }
+        queued++;
+        submit.callback.onAccepted(jobId);
+    }
+
+    private void drainBlocked() {
+        while (!blocked.isEmpty() && queued < capacity) {
+            admit(blocked.removeFirst());
+        }
+    }
+
+    private void runJob(long jobId, PendingSubmit submit) {
+        long startTime = System.currentTimeMillis();
+        JobEvent event = new JobEvent(jobId, submit.method);
+
+        try {
+            Object result = runner.run(submit.method, submit.arguments);
+            if (result == DeviceDispatcher.NOT_IMPLEMENTED) {
+                event.status = "failed";
+                event.error = "Method not implemented: " + submit.method;
+            } else {
+                event.status = isFailedResult(result) ? "failed" : "completed";
+                event.result = result;
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Print job " + jobId + " failed: ", e);
+            event.status = "failed";
+            event.error = e.getMessage();
+        }
+        event.durationMs = System.currentTimeMillis() - startTime;
+
+        EventChannel.EventSink sink;
+        synchronized (this) {
+            queued--;
+            drainBlocked();
+            sink = eventSink;
+        }
+
+        Log.d(TAG, "Print job " + jobId + " (" + submit.method + ") " + event.status);
+        if (sink != null) {
+            dispatcher.postToMain(() -> sink.success(event));
+        }
+    }
+}
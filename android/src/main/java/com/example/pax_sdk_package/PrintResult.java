@@ -0,0 +1,54 @@
+package com.example.pax_sdk_package;
+
+/**
+ * PrintResult - typed result of a print call or a printer status query.
+ *
+ * Written by {@link PaxResultCodec} as a few positional fields; Dart rebuilds
+ * the usual success/message/error/statusCode map from it.
+ */
+public final class PrintResult {
+    /** statusCode value when the printer did not report one */
+    static final int NO_STATUS = Integer.MIN_VALUE;
+
+    final boolean success;
+    final boolean statusReport;
+    final int statusCode;
+    final String message;
+    final String error;
+
+    private PrintResult(boolean success, boolean statusReport, int statusCode, String message, String error) {
+        this.success = success;
+        this.statusReport = statusReport;
+        this.statusCode = statusCode;
+        this.message = message;
+        this.error = error;
+    }
+
+    /**
+     * A print that completed
+     */
+    static PrintResult printed(String message) {
+        return new PrintResult(true, false, NO_STATUS, message, null);
+    }
+
+    /**
+     * A failure without a printer status code
+     */
+    static PrintResult failed(String error) {
+        return new PrintResult(false, false, NO_STATUS, null, error);
+    }
+
+    /**
+     * A print that the printer rejected with a status code
+     */
+    static PrintResult failed(String error, int statusCode) {
+        return new PrintResult(false, false, statusCode, null, error);
+    }
+
+    /**
+     * Answer to getPrinterStatus
+     */
+    static PrintResult status(int status, String statusMessage) {
+        return new PrintResult(true, true, status, statusMessage, null);
+    }
+}
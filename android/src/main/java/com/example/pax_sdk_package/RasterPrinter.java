@@ -0,0 +1,130 @@
+package com.example.pax_sdk_package;
+
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import com.pax.dal.IPrinter;
+import com.pax.dal.exceptions.PrinterDevException;
+
+/**
+ * RasterPrinter - hands packed 1-bit rasters to the printer.
+ *
+ * The PAX printer API only takes bitmaps, so rows are expanded band by band
+ * into a reused black-and-white bitmap. The printer never has to threshold
+ * or scale the result, and only one band is held in ARGB form at a time.
+ *
+ * Blank rows are never rasterized if they can be skipped: blank rows at the
+ * top and bottom are trimmed, and long blank runs inside the image are
+ * replaced with step() feeds, which move the paper at feed speed.
+ */
+public final class RasterPrinter {
+    private static final String TAG = "PAX_SDK";
+
+    /** Rows expanded and handed to the printer at a time */
+    public static final int BAND_ROWS = 64;
+    /** Blank runs at least this long are fed with step() instead of printed */
+    public static final int MIN_FEED_ROWS = 16;
+
+    private RasterPrinter() {
+    }
+
+    /**
+     * Add a raster to the print buffer, trimming blank rows at the top and
+     * bottom. The caller still has to call start().
+     */
+    public static void append(IPrinter printer, MonoRaster raster) throws PrinterDevException {
+        append(printer, raster, true);
+    }
+
+    /**
+     * Add a raster to the print buffer. The caller still has to call start().
+     *
+     * @param trim drop blank rows at the top and bottom; bands of a taller image
+     *             pass false so blank edges are fed and the image keeps its height
+     */
+    public static void append(IPrinter printer, MonoRaster raster, boolean trim) throws PrinterDevException {
+        int top = 0;
+        int bottom = raster.height;
+        if (trim) {
+            while (top < bottom && raster.isBlankRow(top)) {
+                top++;
+            }
+            while (bottom > top && raster.isBlankRow(bottom - 1)) {
+                bottom--;
+            }
+        }
+        if (top == bottom) {
+            return;
+        }
+
+        BandWriter writer = new BandWriter(printer, raster);
+        int fedRows = 0;
+        try {
+            int segmentStart = top;
+            int y = top;
+            while (y < bottom) {
+                if (!raster.isBlankRow(y)) {
+                    y++;
+                    continue;
+                }
+                int blankEnd = y + 1;
+                while (blankEnd < bottom && raster.isBlankRow(blankEnd)) {
+                    blankEnd++;
+                }
+                if (blankEnd - y >= MIN_FEED_ROWS) {
+                    writer.write(segmentStart, y);
+                    printer.step(blankEnd - y);
+                    fedRows += blankEnd - y;
+                    segmentStart = blankEnd;
+                }
+                y = blankEnd;
+            }
+            writer.write(segmentStart, bottom);
+        } finally {
+            writer.close();
+        }
+
+        int trimmedRows = raster.height - (bottom - top);
+        if (trimmedRows + fedRows > 0) {
+            Log.d(TAG, "Raster " + raster.width + "x" + raster.height + ": trimmed " + trimmedRows
+                    + " and fed " + fedRows + " blank rows");
+        }
+    }
+
+    /**
+     * Expands runs of rows into a reused band bitmap and prints them
+     */
+    private static final class BandWriter {
+        private final IPrinter printer;
+        private final MonoRaster raster;
+        private final int[] rowPixels;
+        private Bitmap band;
+
+        BandWriter(IPrinter printer, MonoRaster raster) {
+            this.printer = printer;
+            this.raster = raster;
+            this.rowPixels = new int[raster.width];
+        }
+
+        void write(int fromRow, int toRow) throws PrinterDevException {
+            for (int y = fromRow; y < toRow; y += BAND_ROWS) {
+                int rows = Math.min(BAND_ROWS, toRow - y);
+                if (band == null || band.getHeight() != rows) {
+                    if (band != null) {
+                        band.recycle();
+                    }
+                    band = Bitmap.createBitmap(raster.width, rows, Bitmap.Config.ARGB_8888);
+                }
+                raster.drawRows(band, y, rowPixels);
+                printer.printBitmap(band);
+            }
+        }
+
+        void close() {
+            if (band != null) {
+                band.recycle();
+                band = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.pax_sdk_package;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+
+/**
+ * ScaledDecoder - decodes images no wider than the print head needs.
+ *
+ * The header is read first to get the size, then the image is decoded with
+ * the largest power-of-two subsampling that stays at or above the target
+ * width, and a single filtered scale brings it down to the exact width. Large
+ * camera images never exist in memory at full resolution, and both steps
+ * reuse bitmaps from a {@link BitmapPool}.
+ */
+public final class ScaledDecoder {
+    private static final String TAG = "PAX_SDK";
+
+    private ScaledDecoder() {
+    }
+
+    /**
+     * Decode an encoded image, scaling it down to targetWidth if it is wider.
+     * Pixels are decoded into and scaled into bitmaps borrowed from the pool.
+     *
+     * @return the decoded bitmap, or null if the bytes are not a supported image
+     */
+    public static Bitmap decode(byte[] data, int offset, int length, int targetWidth, BitmapPool pool) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, offset, length, options);
+        int sourceWidth = options.outWidth;
+        int sourceHeight = options.outHeight;
+        if (sourceWidth <= 0 || sourceHeight <= 0) {
+            return null;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSizeFor(sourceWidth, targetWidth);
+        // JPEGs have no alpha, so half-size pixels lose nothing; keep alpha for the rest
+        options.inPreferredConfig = "image/jpeg".equals(options.outMimeType)
+                ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        options.inMutable = true;
+        options.inBitmap = pool.inBitmapFor(sampled(sourceWidth, options.inSampleSize),
+                sampled(sourceHeight, options.inSampleSize), options.inPreferredConfig);
+
+        Bitmap decoded = decodeInto(data, offset, length, options, pool);
+        if (decoded == null || decoded.getWidth() <= targetWidth) {
+            return decoded;
+        }
+
+        int scaledHeight = Math.max(1, Math.round(decoded.getHeight() * (float) targetWidth / decoded.getWidth()));
+        Bitmap scaled = pool.scaled(decoded, targetWidth, scaledHeight);
+        if (scaled != decoded) {
+            pool.release(decoded);
+        }
+        Log.d(TAG, "Decoded " + sourceWidth + "x" + sourceHeight + " image at 1/" + options.inSampleSize
+                + " and scaled to " + targetWidth + "x" + scaledHeight);
+        return scaled;
+    }
+
+    private static Bitmap decodeInto(byte[] data, int offset, int length, BitmapFactory.Options options,
+                                     BitmapPool pool) {
+        Bitmap reuse = options.inBitmap;
+        Bitmap decoded;
+        try {
+            decoded = BitmapFactory.decodeByteArray(data, offset, length, options);
+        } catch (IllegalArgumentException e) {
+            if (reuse == null) {
+                throw e;
+            }
+            // The decoder refused the pooled bitmap; allocate a fresh one instead
+            reuse.recycle();
+            options.inBitmap = null;
+            return BitmapFactory.decodeByteArray(data, offset, length, options);
+        }
+        if (reuse != null && decoded != reuse) {
+            pool.release(reuse);
+        }
+        return decoded;
+    }
+
+    /**
+     * Size of a dimension after inSampleSize, rounded up so pooled bitmaps are never too small
+     */
+    static int sampled(int size, int sampleSize) {
+        return (size + sampleSize - 1) / sampleSize;
+    }
+
+    /**
+     * Largest power of two that keeps the decoded width at or above the target
+     */
+    static int sampleSizeFor(int sourceWidth, int targetWidth) {
+        int sampleSize = 1;
+        if (targetWidth <= 0) {
+            return sampleSize;
+        }
+        while (sourceWidth / (sampleSize * 2) >= targetWidth) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+}
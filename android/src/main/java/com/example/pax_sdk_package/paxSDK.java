@@ -5,10 +5,13 @@ import io.flutter.embedding.android.FlutterActivity;
 import androidx.annotation.NonNull;
 
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
+import io.flutter.plugin.common.EventChannel;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
 import io.flutter.plugin.common.MethodChannel.Result;
+import io.flutter.plugin.common.MethodCodec;
+import io.flutter.plugin.common.StandardMethodCodec;
 
 import com.pax.dal.IDAL;
 import com.pax.dal.IPicc;
@@ -21,21 +24,17 @@ import com.pax.dal.exceptions.PrinterDevException;
 import com.pax.neptunelite.api.NeptuneLiteUser;
 import android.util.Log;
 import android.content.Context;
-import com.pax.dal.entity.EPiccType;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Color;
 
 import android.content.res.AssetManager;
-import android.content.pm.PackageManager;
-import android.content.pm.PackageInfo;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import dalvik.system.DexClassLoader;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
@@ -45,70 +44,127 @@ import java.util.List;
  */
 public class paxSDK implements FlutterPlugin, MethodCallHandler {
     private MethodChannel channel;
+    private EventChannel cardEventChannel;
+    private EventChannel printJobEventChannel;
     public static Context appContext;
     private static final String TAG = "PAX_SDK";
     private IPrinter printer;
-    private IDAL dal;
+    private final PrinterSession printerSession = new PrinterSession();
+    private DeviceDispatcher dispatcher;
+    private PiccSession piccSession;
+    private CardEventStream cardEventStream;
+    private final DetectionToken.Registry detections = new DetectionToken.Registry();
+    private PrintJobQueue printJobQueue;
+    private CommandBatch commandBatch;
+    private final ImageJob.Registry imageJobs = new ImageJob.Registry();
+    private final BitmapPool bitmapPool = new BitmapPool();
+    private final RasterCache rasterCache = new RasterCache(bitmapPool);
+    private final TextRunCache textRuns = new TextRunCache();
+    private PrintAssetStore printAssets;
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
-        channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "pax_sdk");
+        dispatcher = new DeviceDispatcher();
+        piccSession = new PiccSession(dispatcher.executor(DeviceDispatcher.Lane.NFC));
+        // Card, print and job results use compact typed encodings; see PaxResultCodec
+        MethodCodec resultCodec = new StandardMethodCodec(PaxResultCodec.INSTANCE);
+        channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "pax_sdk", resultCodec);
         channel.setMethodCallHandler(this);
         appContext = flutterPluginBinding.getApplicationContext();
+        printAssets = new PrintAssetStore(new File(appContext.getFilesDir(), "pax_print_assets"));
+
+        cardEventStream = new CardEventStream(dispatcher, piccSession, new CardEventStream.CardReader() {
+            @Override
+            public String detect() throws Exception {
+                return detectCardForEvent();
+            }
+
+            @Override
+            public CardResult readCard() throws Exception {
+                return readCardForEvent();
+            }
+        });
+        cardEventChannel = new EventChannel(flutterPluginBinding.getBinaryMessenger(), "pax_sdk/cards", resultCodec);
+        cardEventChannel.setStreamHandler(cardEventStream);
+
+        printJobQueue = new PrintJobQueue(dispatcher,
+                (method, arguments) -> handleMethodCall(new MethodCall(method, arguments)));
+        printJobEventChannel = new EventChannel(flutterPluginBinding.getBinaryMessenger(), "pax_sdk/print_jobs",
+                resultCodec);
+        printJobEventChannel.setStreamHandler(printJobQueue);
+
+        commandBatch = new CommandBatch(dispatcher, new CommandBatch.Commands() {
+            @Override
+            public DeviceDispatcher.Lane laneFor(String method) {
+                return paxSDK.this.laneFor(method);
+            }
+
+            @Override
+            public Object handle(String method, Map<String, Object> arguments) {
+                return handleMethodCall(new MethodCall(method, arguments));
+            }
+        });
+
+        // Probe device capabilities in the background so the first card tap doesn't pay for it
+        final Context probeContext = appContext;
+        dispatcher.executor(DeviceDispatcher.Lane.SYSTEM).execute(() -> DeviceCapabilities.get(probeContext));
     }
 
     // ============ NFC METHODS ============
 
     /**
-     * Check if PAX SDK is available on this device
+     * Check if PAX SDK is available on this device (cached after the first probe)
      */
     private boolean isPaxSdkAvailable() {
-        try {
-            // Check if PAX-specific packages are available
-            PackageManager pm = appContext.getPackageManager();
-            List<PackageInfo> packages = pm.getInstalledPackages(0);
-            
-            for (PackageInfo packageInfo : packages) {
-                if (packageInfo.packageName.contains("pax") || 
-                    packageInfo.packageName.contains("pos") ||
-                    packageInfo.packageName.contains("com.pos.device")) {
-                    Log.d(TAG, "Found PAX-related package: " + packageInfo.packageName);
-                    return true;
-                }
-            }
-            
-            Log.w(TAG, "No PAX-related packages found on device");
-            return false;
-        } catch (Exception e) {
-            Log.e(TAG, "Error checking PAX SDK availability: " + e.getMessage());
-            return false;
+        DeviceCapabilities capabilities = DeviceCapabilities.get(appContext);
+        if (!capabilities.paxSdkAvailable) {
+            Log.w(TAG, "PAX SDK not available: " + capabilities.failureReason);
         }
+        return capabilities.paxSdkAvailable;
     }
 
     /**
      * Initialize PICC and detect card presence with basic information
      */
-    public Map<String, Object> detectAndIdentifyCard(Context context) {
-        Map<String, Object> result = new HashMap<>();
-        
+    public CardResult detectAndIdentifyCard(Context context) {
+        return detectAndIdentifyCard(context, DetectionScheduler.DEFAULT_TIMEOUT_MS,
+                DetectionScheduler.DEFAULT_INITIAL_INTERVAL_MS, null);
+    }
+
+    /**
+     * Initialize PICC and detect card presence, waiting up to timeoutMs for a card.
+     * The detection can be cancelled with cancelDetection using tokenId.
+     */
+    public CardResult detectAndIdentifyCard(Context context, long timeoutMs, long pollIntervalMs,
+                                            String tokenId) {
+        DetectionToken token = detections.register(tokenId);
+        try {
+            return runCardDetection(context, timeoutMs, pollIntervalMs, token);
+        } finally {
+            detections.unregister(token);
+        }
+    }
+
+    private CardResult runCardDetection(Context context, long timeoutMs, long pollIntervalMs,
+                                        DetectionToken token) {
         try {
+            if (token.isCancelled()) {
+                return cancelledDetectionResult();
+            }
+            
             // Use appContext if context is null
             Context ctx = (context != null) ? context : appContext;
             if (ctx == null) {
-                result.put("success", false);
-                result.put("error", "Context is null - cannot initialize PAX SDK");
-                return result;
+                return CardResult.failure("Context is null - cannot initialize PAX SDK");
             }
             
             // Check if PAX SDK is available on this device
             if (!isPaxSdkAvailable()) {
-                result.put("success", false);
-                result.put("error", "PAX SDK not available on this device - not a PAX device");
-                return result;
+                return CardResult.failure("PAX SDK not available on this device - not a PAX device");
             }
             
-            // Initialize PAX SDK
-            initializePaxSDK(ctx);
+            // Initialize PAX SDK (runs once per process)
+            PaxSdkLoader.ensureLoaded(ctx);
 
             Log.d(TAG, "Getting DAL instance...");
             IDAL dal = null;
@@ -116,207 +172,136 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 dal = NeptuneLiteUser.getInstance().getDal(ctx);
                 if (dal == null) {
                     Log.e(TAG, "Failed to get DAL instance - DAL is null");
-                    result.put("success", false);
-                    result.put("error", "Failed to get DAL instance - DAL is null");
-                    return result;
+                    return CardResult.failure("Failed to get DAL instance - DAL is null");
                 }
                 Log.d(TAG, "DAL instance obtained successfully");
             } catch (UnsatisfiedLinkError e) {
                 Log.e(TAG, "UnsatisfiedLinkError when getting DAL: " + e.getMessage());
-                result.put("success", false);
-                result.put("error", "LOAD DAL ERR: Missing native libraries - " + e.getMessage());
-                return result;
+                return CardResult.failure("LOAD DAL ERR: Missing native libraries - " + e.getMessage());
             } catch (Exception e) {
                 Log.e(TAG, "Exception when getting DAL: " + e.getMessage());
-                result.put("success", false);
-                result.put("error", "LOAD DAL ERR: " + e.getMessage());
-                return result;
+                return CardResult.failure("LOAD DAL ERR: " + e.getMessage());
             }
             
-            Log.d(TAG, "Getting PICC instance...");
-            IPicc picc = dal.getPicc(EPiccType.INTERNAL);
-            if (picc == null) {
-                Log.e(TAG, "Failed to get PICC instance");
-                result.put("success", false);
-                result.put("error", "Failed to get PICC instance");
-                return result;
+            IPicc picc;
+            try {
+                picc = piccSession.acquire(dal);
+            } catch (IllegalStateException e) {
+                Log.e(TAG, e.getMessage());
+                return CardResult.failure(e.getMessage());
             }
-            Log.d(TAG, "PICC instance obtained successfully");
 
-            picc.open();
-            Log.d(TAG, "PICC opened successfully");
+            CardResult card = null;
+            try {
+                // Try to detect card with retry logic
+                PiccCardInfo cardInfo = detectCardWithRetry(picc, timeoutMs, pollIntervalMs, token);
 
-            // Try to detect card with retry logic
-            PiccCardInfo cardInfo = detectCardWithRetry(picc);
-            
-            if (cardInfo == null) {
-                Log.w(TAG, "No NFC card detected");
-                picc.close();
-                result.put("success", false);
-                result.put("error", "No card detected");
-                return result;
+                if (cardInfo != null) {
+                    // Read card details and the manufacturer block (Block 0) if possible
+                    card = readCard(picc, cardInfo);
+                }
+            } catch (Exception e) {
+                piccSession.invalidate();
+                throw e;
             }
+            piccSession.release();
 
-            // Get card information
-            Map<String, Object> cardData = analyzeCardInfo(cardInfo);
+            if (token.isCancelled()) {
+                // Release the reader right away rather than after the idle timeout
+                piccSession.close();
+                return cancelledDetectionResult();
+            }
 
-            // Try to read manufacturer block (Block 0) if possible
-            Map<String, Object> manufacturerData = tryReadManufacturerBlock(picc, cardInfo);
-            
-            picc.close();
-            Log.d(TAG, "PICC closed successfully");
+            if (card == null) {
+                Log.w(TAG, "No NFC card detected");
+                return CardResult.failure("No card detected");
+            }
 
-            // Combine all data
-            result.put("success", true);
-            result.put("cardData", cardData);
-            result.put("manufacturerData", manufacturerData);
-            
-            return result;
+            return card;
 
         } catch (Exception e) {
             Log.e(TAG, "Error during card detection: ", e);
-            result.put("success", false);
-            result.put("error", "Detection error: " + e.getMessage());
-            return result;
+            return CardResult.failure("Detection error: " + e.getMessage());
         }
     }
 
     /**
-     * Initialize PAX SDK components
+     * Result returned to Dart when a detection was cancelled
      */
-    private void initializePaxSDK(Context context) throws Exception {
-        Log.d(TAG, "Initializing PAX SDK...");
-        
-        try {
-            // Check if native libraries are available
-            String libraryPath = context.getApplicationInfo().nativeLibraryDir;
-            Log.d(TAG, "Native library path: " + libraryPath);
-            
-            // List available libraries for debugging
-            File libDir = new File(libraryPath);
-            if (libDir.exists() && libDir.isDirectory()) {
-                File[] libs = libDir.listFiles((dir, name) -> name.endsWith(".so"));
-                if (libs != null) {
-                    Log.d(TAG, "Available native libraries:");
-                    for (File lib : libs) {
-                        Log.d(TAG, "  - " + lib.getName());
-                    }
-                }
-            }
-            
-            // Load dex file if it exists
-            File dexFile = new File(context.getFilesDir(), "nepcore.dex");
-            File optimizedDir = context.getDir("dex_opt", Context.MODE_PRIVATE);
+    private CardResult cancelledDetectionResult() {
+        Log.d(TAG, "Card detection cancelled");
+        return CardResult.cancelledResult();
+    }
 
-            if (dexFile.exists()) {
-                DexClassLoader loader = new DexClassLoader(
-                        dexFile.getAbsolutePath(),
-                        optimizedDir.getAbsolutePath(),
-                        null, // Don't pass nativeLibsDir to avoid library conflicts
-                        context.getClassLoader()
-                );
-                Log.d(TAG, "DEX file loaded successfully");
-            } else {
-                Log.w(TAG, "DEX file not found, continuing without dynamic loading");
-            }
-            
-            Log.d(TAG, "PAX SDK initialized successfully");
-        } catch (Exception e) {
-            Log.e(TAG, "Error initializing PAX SDK: " + e.getMessage(), e);
-            throw e;
-        }
+    /**
+     * Detect card, polling until the deadline with a backing-off interval
+     */
+    private PiccCardInfo detectCardWithRetry(IPicc picc, long timeoutMs, long pollIntervalMs,
+                                             DetectionToken token) {
+        DetectionScheduler scheduler = new DetectionScheduler(timeoutMs, pollIntervalMs);
+        return scheduler.detect(picc, EDetectMode.ONLY_M, token);
     }
 
     /**
-     * Detect card with retry mechanism
+     * Cancel in-flight card detection and release the reader
      */
-    private PiccCardInfo detectCardWithRetry(IPicc picc) {
-        int maxRetries = 5;
-        int retryDelay = 1000; // 1 second
-        
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            Log.d(TAG, "Card detection attempt " + attempt + "/" + maxRetries);
-            
-            try {
-                PiccCardInfo info = picc.detect(EDetectMode.ONLY_M);
-                if (info != null) {
-                    Log.d(TAG, "✓ Card detected successfully on attempt " + attempt);
-                    return info;
-                } else {
-                    Log.d(TAG, "No card detected on attempt " + attempt);
-                    if (attempt < maxRetries) {
-                        Thread.sleep(retryDelay);
-                    }
-                }
-            } catch (Exception e) {
-                Log.w(TAG, "Detection attempt " + attempt + " failed: " + e.getMessage());
-                if (attempt < maxRetries) {
-                    try {
-                        Thread.sleep(retryDelay);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
+    private Map<String, Object> cancelDetection(String tokenId) {
+        Map<String, Object> result = new HashMap<>();
+
+        int cancelled;
+        if (tokenId != null) {
+            cancelled = detections.cancel(tokenId) ? 1 : 0;
+        } else {
+            cancelled = detections.cancelAll();
+
+            // Stop a pending waitForCard; close the reader once the NFC lane is free
+            if (cardEventStream.cancelWait()) {
+                dispatcher.executor(DeviceDispatcher.Lane.NFC).execute(piccSession::close);
             }
         }
-        
-        return null;
+
+        Log.d(TAG, "Cancelled " + cancelled + " card detection(s)");
+        result.put("success", true);
+        result.put("cancelled", cancelled);
+        return result;
     }
 
     /**
-     * Analyze and log card information
+     * Read and log the details of a detected card
      */
-    private Map<String, Object> analyzeCardInfo(PiccCardInfo cardInfo) {
-        Map<String, Object> cardData = new HashMap<>();
-        
-        try {
-            Log.d(TAG, "=== CARD INFORMATION ===");
-            
-            // Get serial/UID
-            byte[] serial = cardInfo.getSerialInfo();
-            if (serial != null && serial.length > 0) {
-                String uidHex = bytesToHex(serial);
-                Log.d(TAG, "Card UID/Serial: " + uidHex);
-                Log.d(TAG, "UID Length: " + serial.length + " bytes");
-                
-                // Store card data
-                cardData.put("uid", uidHex);
-                cardData.put("uidLength", serial.length);
-                cardData.put("uidBytes", serial);
-                
-                // Determine card type based on UID length and first byte
-                Map<String, Object> cardTypeInfo = analyzeCardType(serial);
-                cardData.put("cardType", cardTypeInfo);
-            } else {
-                Log.w(TAG, "No serial information available");
-                cardData.put("error", "No serial information available");
-            }
+    private CardResult readCard(IPicc picc, PiccCardInfo cardInfo) {
+        Log.d(TAG, "=== CARD INFORMATION ===");
 
-            // Try to get additional card information
-            try {
-                // Some cards provide additional info through the CardInfo object
-                Log.d(TAG, "Card Info Object: " + cardInfo.toString());
-                cardData.put("cardInfoObject", cardInfo.toString());
-            } catch (Exception e) {
-                Log.v(TAG, "Could not get additional card info: " + e.getMessage());
-            }
-            
+        String cardInfoText = null;
+        try {
+            // Some cards provide additional info through the CardInfo object
+            cardInfoText = cardInfo.toString();
+            Log.d(TAG, "Card Info Object: " + cardInfoText);
         } catch (Exception e) {
-            Log.e(TAG, "Error analyzing card info: " + e.getMessage());
-            cardData.put("error", "Analysis error: " + e.getMessage());
+            Log.v(TAG, "Could not get additional card info: " + e.getMessage());
         }
-        
-        return cardData;
+
+        CardResult card = CardResult.detected(cardInfo.getSerialInfo(), cardInfoText);
+        if (card.uid != null) {
+            Log.d(TAG, "Card UID/Serial: " + card.uidHex());
+            Log.d(TAG, "UID Length: " + card.uid.length + " bytes");
+
+            // Determine card type based on UID length and first byte
+            analyzeCardType(card);
+        } else {
+            Log.w(TAG, "No serial information available");
+        }
+
+        // Try to read manufacturer block (Block 0) if possible
+        tryReadManufacturerBlock(picc, card);
+        return card;
     }
 
     /**
      * Analyze card type based on UID
      */
-    private Map<String, Object> analyzeCardType(byte[] uid) {
-        Map<String, Object> cardTypeInfo = new HashMap<>();
-        
-        if (uid == null || uid.length == 0) return cardTypeInfo;
+    private void analyzeCardType(CardResult card) {
+        byte[] uid = card.uid;
         
         Log.d(TAG, "=== CARD TYPE ANALYSIS ===");
         
@@ -327,98 +312,77 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
         switch (uid.length) {
             case 4:
                 cardType = "MIFARE Classic 1K/4K (4-byte UID)";
-                Log.d(TAG, "Card Type: " + cardType);
                 break;
             case 7:
                 cardType = "MIFARE Classic 1K/4K (7-byte UID)";
-                Log.d(TAG, "Card Type: " + cardType);
                 break;
             case 10:
                 cardType = "MIFARE Classic 4K (10-byte UID)";
-                Log.d(TAG, "Card Type: " + cardType);
                 break;
             default:
                 cardType = "Unknown (" + uid.length + "-byte UID)";
-                Log.d(TAG, "Card Type: " + cardType);
                 break;
         }
+        Log.d(TAG, "Card Type: " + cardType);
         
         // Analyze manufacturer based on first byte
         if (uid.length >= 4) {
             switch (firstByte) {
                 case 0x04:
                     manufacturer = "NXP Semiconductors";
-                    Log.d(TAG, "Manufacturer: " + manufacturer);
                     break;
                 case 0x02:
                     manufacturer = "STMicroelectronics";
-                    Log.d(TAG, "Manufacturer: " + manufacturer);
                     break;
                 case 0x05:
                     manufacturer = "Infineon Technologies";
-                    Log.d(TAG, "Manufacturer: " + manufacturer);
                     break;
                 default:
                     manufacturer = "Unknown (0x" + String.format("%02X", firstByte) + ")";
-                    Log.d(TAG, "Manufacturer: " + manufacturer);
                     break;
             }
+            Log.d(TAG, "Manufacturer: " + manufacturer);
         }
         
-        cardTypeInfo.put("cardType", cardType);
-        cardTypeInfo.put("manufacturer", manufacturer);
-        cardTypeInfo.put("uidLength", uid.length);
-        cardTypeInfo.put("firstByte", String.format("%02X", firstByte));
-        
-        return cardTypeInfo;
+        card.cardType = cardType;
+        card.manufacturer = manufacturer;
     }
 
     /**
      * Try to read manufacturer block (Block 0) without authentication
      */
-    private Map<String, Object> tryReadManufacturerBlock(IPicc picc, PiccCardInfo cardInfo) {
-        Map<String, Object> manufacturerData = new HashMap<>();
-        
+    private void tryReadManufacturerBlock(IPicc picc, CardResult card) {
         try {
             Log.d(TAG, "=== TRYING TO READ MANUFACTURER BLOCK ===");
             
             // Try to read Block 0 directly (sometimes readable without auth)
             byte[] block0Data = picc.m1Read((byte)0);
             if (block0Data != null && block0Data.length > 0) {
-                String block0Hex = bytesToHex(block0Data);
-                Log.d(TAG, "✓ Block 0 (Manufacturer) Data: " + block0Hex);
-                manufacturerData.put("block0Data", block0Hex);
-                manufacturerData.put("block0Bytes", block0Data);
-                
-                Map<String, Object> parsedData = parseManufacturerBlock(block0Data);
-                manufacturerData.put("parsedData", parsedData);
+                Log.d(TAG, "✓ Block 0 (Manufacturer) Data: " + CardResult.hex(block0Data));
+                card.block0 = block0Data;
             } else {
                 Log.d(TAG, "Block 0 is protected or returned no data");
-                manufacturerData.put("error", "Block 0 is protected or returned no data");
+                card.block0Error = "Block 0 is protected or returned no data";
             }
             
         } catch (Exception e) {
             Log.d(TAG, "Block 0 requires authentication: " + e.getMessage());
-            manufacturerData.put("error", "Block 0 requires authentication: " + e.getMessage());
+            card.block0Error = "Block 0 requires authentication: " + e.getMessage();
             
             // Try with default key if direct read fails
-            Map<String, Object> authResult = tryReadBlock0WithAuth(picc, cardInfo);
-            manufacturerData.put("authResult", authResult);
+            tryReadBlock0WithAuth(picc, card);
         }
-        
-        return manufacturerData;
     }
 
     /**
      * Try to read Block 0 with common authentication keys
      */
-    private Map<String, Object> tryReadBlock0WithAuth(IPicc picc, PiccCardInfo cardInfo) {
-        Map<String, Object> authResult = new HashMap<>();
+    private void tryReadBlock0WithAuth(IPicc picc, CardResult card) {
+        card.authAttempted = true;
         
-        byte[] serial = cardInfo.getSerialInfo();
-        if (serial == null) {
-            authResult.put("error", "No serial info available");
-            return authResult;
+        if (card.uid == null) {
+            card.authError = "No serial info available";
+            return;
         }
         
         byte[][] commonKeys = {
@@ -428,19 +392,13 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
 
         for (int i = 0; i < commonKeys.length; i++) {
             try {
-                picc.m1Auth(com.pax.dal.entity.EM1KeyType.TYPE_A, (byte)0, commonKeys[i], serial);
+                picc.m1Auth(com.pax.dal.entity.EM1KeyType.TYPE_A, (byte)0, commonKeys[i], card.uid);
                 byte[] data = picc.m1Read((byte)0);
                 if (data != null) {
-                    String dataHex = bytesToHex(data);
-                    Log.d(TAG, "✓ Block 0 with key " + i + ": " + dataHex);
-                    authResult.put("success", true);
-                    authResult.put("keyIndex", i);
-                    authResult.put("data", dataHex);
-                    authResult.put("dataBytes", data);
-                    
-                    Map<String, Object> parsedData = parseManufacturerBlock(data);
-                    authResult.put("parsedData", parsedData);
-                    return authResult;
+                    Log.d(TAG, "✓ Block 0 with key " + i + ": " + CardResult.hex(data));
+                    card.block0 = data;
+                    card.keyIndex = i;
+                    return;
                 }
             } catch (Exception e) {
                 Log.v(TAG, "Block 0 auth with key " + i + " failed");
@@ -448,64 +406,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
         }
         
         Log.d(TAG, "Block 0 is fully protected with custom keys");
-        authResult.put("error", "Block 0 is fully protected with custom keys");
-        return authResult;
-    }
-
-    /**
-     * Parse manufacturer block data
-     */
-    private Map<String, Object> parseManufacturerBlock(byte[] data) {
-        Map<String, Object> parsedData = new HashMap<>();
-        
-        if (data == null || data.length < 16) {
-            parsedData.put("error", "Invalid data length");
-            return parsedData;
-        }
-        
-        try {
-            Log.d(TAG, "=== MANUFACTURER BLOCK DETAILS ===");
-            
-            // Extract UID (first 4 bytes for most cards)
-            byte[] uid = new byte[4];
-            System.arraycopy(data, 0, uid, 0, 4);
-            String embeddedUid = bytesToHex(uid);
-            Log.d(TAG, "Embedded UID: " + embeddedUid);
-            parsedData.put("embeddedUid", embeddedUid);
-            parsedData.put("embeddedUidBytes", uid);
-            
-            // BCC (Block Check Character)
-            byte bcc = data[4];
-            String bccHex = String.format("%02X", bcc);
-            Log.d(TAG, "BCC: 0x" + bccHex);
-            parsedData.put("bcc", bccHex);
-            parsedData.put("bccValue", bcc);
-            
-            // SAK (Select Acknowledge)
-            if (data.length > 5) {
-                byte sak = data[5];
-                String sakHex = String.format("%02X", sak);
-                Log.d(TAG, "SAK: 0x" + sakHex);
-                parsedData.put("sak", sakHex);
-                parsedData.put("sakValue", sak);
-            }
-            
-            // ATQA (Answer to Request)
-            if (data.length > 7) {
-                byte atqa1 = data[6];
-                byte atqa2 = data[7];
-                String atqaHex = String.format("%02X%02X", atqa2, atqa1);
-                Log.d(TAG, "ATQA: 0x" + atqaHex);
-                parsedData.put("atqa", atqaHex);
-                parsedData.put("atqaBytes", new byte[]{atqa1, atqa2});
-            }
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing manufacturer block: " + e.getMessage());
-            parsedData.put("error", "Parsing error: " + e.getMessage());
-        }
-        
-        return parsedData;
+        card.authError = "Block 0 is fully protected with custom keys";
     }
 
     /**
@@ -521,11 +422,14 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             }
             
             IDAL dal = NeptuneLiteUser.getInstance().getDal(ctx);
-            IPicc picc = dal.getPicc(EPiccType.INTERNAL);
+            IPicc picc = piccSession.acquire(dal);
             
-            picc.open();
-            PiccCardInfo info = picc.detect(EDetectMode.ONLY_M);
-            picc.close();
+            PiccCardInfo info;
+            try {
+                info = picc.detect(EDetectMode.ONLY_M);
+            } finally {
+                piccSession.release();
+            }
             
             boolean present = (info != null);
             Log.d(TAG, "Card presence check: " + (present ? "PRESENT" : "NOT PRESENT"));
@@ -538,28 +442,52 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
     }
 
     /**
-     * Wait for card and process when detected
+     * Wait for card and process when detected; the result is pushed on the card event stream
      */
     public void waitForCardAndProcess(Context context) {
-        new Thread(() -> {
-            Log.d(TAG, "=== WAITING FOR CARD ===");
-            
-            while (true) {
-                if (isCardPresent(context)) {
-                    Log.d(TAG, "Card detected! Processing...");
-                    detectAndIdentifyCard(context);
-                    break;
-                }
-                
-                try {
-                    Thread.sleep(50); // Check every 500ms
-                } catch (InterruptedException e) {
-                    Log.d(TAG, "Card waiting interrupted");
-                    Thread.currentThread().interrupt();
-                    break;
-                }
+        cardEventStream.waitForCard();
+    }
+
+    /**
+     * Detect the card in the field for the card event stream, without reading it
+     *
+     * @return the card's UID as hex, or null if no card is present
+     */
+    private String detectCardForEvent() throws Exception {
+        PaxSdkLoader.ensureLoaded(appContext);
+        IDAL dal = NeptuneLiteUser.getInstance().getDal(appContext);
+        IPicc picc = piccSession.acquire(dal);
+
+        try {
+            PiccCardInfo info = picc.detect(EDetectMode.ONLY_M);
+            if (info == null) {
+                return null;
+            }
+            byte[] serial = info.getSerialInfo();
+            return serial != null ? CardResult.hex(serial) : "";
+        } finally {
+            piccSession.release();
+        }
+    }
+
+    /**
+     * Read the card in the field for the card event stream
+     */
+    private CardResult readCardForEvent() throws Exception {
+        PaxSdkLoader.ensureLoaded(appContext);
+        IDAL dal = NeptuneLiteUser.getInstance().getDal(appContext);
+        IPicc picc = piccSession.acquire(dal);
+
+        try {
+            PiccCardInfo info = picc.detect(EDetectMode.ONLY_M);
+            if (info == null) {
+                return null;
             }
-        }).start();
+
+            return readCard(picc, info);
+        } finally {
+            piccSession.release();
+        }
     }
 
     /**
@@ -574,12 +502,11 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 return;
             }
             
-            initializePaxSDK(ctx);
+            PaxSdkLoader.ensureLoaded(ctx);
             
             IDAL dal = NeptuneLiteUser.getInstance().getDal(ctx);
-            IPicc picc = dal.getPicc(EPiccType.INTERNAL);
+            IPicc picc = piccSession.acquire(dal);
             
-            picc.open();
             Log.d(TAG, "=== TESTING ALL DETECTION MODES ===");
 
             EDetectMode[] modes = {
@@ -610,14 +537,18 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 }
             }
 
+            piccSession.release();
+
             if (bestResult != null) {
                 Log.d(TAG, "Best detection mode: " + bestMode);
-                analyzeCardInfo(bestResult);
+                CardResult card = CardResult.detected(bestResult.getSerialInfo(), null);
+                Log.d(TAG, "Card UID/Serial: " + card.uidHex());
+                if (card.uid != null) {
+                    analyzeCardType(card);
+                }
             } else {
                 Log.w(TAG, "No card detected with any mode");
             }
-
-            picc.close();
             
         } catch (Exception e) {
             Log.e(TAG, "Error testing detection modes: " + e.getMessage());
@@ -627,7 +558,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
     // ============ PRINTER METHODS ============
 
     /**
-     * Initialize printer
+     * Initialize printer, reusing the printer session when it is already up
      */
     private boolean initializePrinter(Context context) {
         try {
@@ -638,36 +569,15 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 return false;
             }
             
-            // Initialize PAX SDK first
-            initializePaxSDK(ctx);
+            // Initialize PAX SDK first (runs once per process)
+            PaxSdkLoader.ensureLoaded(ctx);
 
-            dal = NeptuneLiteUser.getInstance().getDal(ctx);
-            printer = dal.getPrinter();
-            
-            // Initialize printer
-            printer.init();
-            
-            // Check printer status
-            int status = printer.getStatus();
-            Log.d(TAG, "Printer status after init: " + status);
-            
-            if (status != 0) {
-                Log.w(TAG, "Printer status not OK: " + status + " - " + getStatusMessage(status));
-                // Try to reset printer if it's in error state
-                try {
-                    printer.init();
-                    status = printer.getStatus();
-                    Log.d(TAG, "Printer status after reset: " + status);
-                } catch (Exception resetException) {
-                    Log.e(TAG, "Failed to reset printer: ", resetException);
-                }
-            }
-            
-            Log.d(TAG, "Printer initialized successfully");
+            printer = printerSession.acquire(ctx);
             return true;
             
         } catch (Exception e) {
             Log.e(TAG, "Error initializing printer: ", e);
+            printerSession.invalidate();
             return false;
         }
     }
@@ -687,38 +597,13 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 return result;
             }
 
-            EFontTypeAscii asciiFont;
-            EFontTypeExtCode extFont;
-            
-            switch (fontSize.toLowerCase()) {
-                case "small":
-                    asciiFont = EFontTypeAscii.FONT_8_16;
-                    extFont = EFontTypeExtCode.FONT_16_16;
-                    break;
-                case "medium":
-                    asciiFont = EFontTypeAscii.FONT_12_24;
-                    extFont = EFontTypeExtCode.FONT_24_24;
-                    break;
-                case "large":
-                    asciiFont = EFontTypeAscii.FONT_16_32;
-                    extFont = EFontTypeExtCode.FONT_32_32;
-                    break;
-                case "extra_large":
-                    asciiFont = EFontTypeAscii.FONT_24_48;
-                    extFont = EFontTypeExtCode.FONT_48_48;
-                    break;
-                default:
-                    asciiFont = EFontTypeAscii.FONT_12_24;
-                    extFont = EFontTypeExtCode.FONT_24_24;
-                    break;
-            }
-            
-            printer.fontSet(asciiFont, extFont);
+            applyFontSize(fontSize);
             result.put("success", true);
             result.put("message", "Font size set successfully");
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -730,6 +615,39 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
         return result;
     }
 
+    /**
+     * Map a font size name to PAX font types and apply it
+     */
+    private void applyFontSize(String fontSize) throws PrinterDevException {
+        EFontTypeAscii asciiFont;
+        EFontTypeExtCode extFont;
+        
+        switch (fontSize.toLowerCase()) {
+            case "small":
+                asciiFont = EFontTypeAscii.FONT_8_16;
+                extFont = EFontTypeExtCode.FONT_16_16;
+                break;
+            case "medium":
+                asciiFont = EFontTypeAscii.FONT_12_24;
+                extFont = EFontTypeExtCode.FONT_24_24;
+                break;
+            case "large":
+                asciiFont = EFontTypeAscii.FONT_16_32;
+                extFont = EFontTypeExtCode.FONT_32_32;
+                break;
+            case "extra_large":
+                asciiFont = EFontTypeAscii.FONT_24_48;
+                extFont = EFontTypeExtCode.FONT_48_48;
+                break;
+            default:
+                asciiFont = EFontTypeAscii.FONT_12_24;
+                extFont = EFontTypeExtCode.FONT_24_24;
+                break;
+        }
+        
+        printer.fontSet(asciiFont, extFont);
+    }
+
     /**
      * Set custom font path
      */
@@ -749,6 +667,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -779,6 +698,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -809,6 +729,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -839,6 +760,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -869,6 +791,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -899,6 +822,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -929,6 +853,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -960,6 +885,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -991,6 +917,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -1142,73 +1069,59 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
     }
 
     /**
-     * Print bitmap with mono threshold
+     * Print bitmap with mono threshold, or with error diffusion when a dither kernel is given
      */
-    private Map<String, Object> printBitmapWithMonoThreshold(List<Integer> imageData, int grayThreshold) {
-        Map<String, Object> result = new HashMap<>();
-        
+    private PrintResult printBitmapWithMonoThreshold(Object imageData, int grayThreshold, String dither) {
         try {
             if (!initializePrinter(null)) {
-                result.put("success", false);
-                result.put("error", "Failed to initialize printer");
-                return result;
+                return PrintResult.failed("Failed to initialize printer");
             }
             
             // Check if printer is ready
             int printerStatus = printer.getStatus();
             if (printerStatus != 0) {
                 Log.w(TAG, "Printer not ready, status: " + printerStatus);
-                result.put("success", false);
-                result.put("error", "Printer not ready: " + getStatusMessage(printerStatus));
-                return result;
-            }
-
-            // Convert List<Integer> to byte array
-            byte[] imageBytes = new byte[imageData.size()];
-            for (int i = 0; i < imageData.size(); i++) {
-                imageBytes[i] = imageData.get(i).byteValue();
+                printerSession.invalidate();
+                return PrintResult.failed("Printer not ready: " + getStatusMessage(printerStatus));
             }
 
-            // Create bitmap from byte array
-            Bitmap bitmap = BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length);
+            // Decode straight from the bytes sent by Dart
+            Bitmap bitmap = decodeImage(imageData);
             if (bitmap == null) {
-                result.put("success", false);
-                result.put("error", "Failed to decode image");
-                return result;
+                return PrintResult.failed("Failed to decode image");
             }
 
-            // Print the bitmap with threshold
-            printer.printBitmapWithMonoThreshold(bitmap, grayThreshold);
+            // Convert on the raster workers and print the packed result
+            MonoRaster raster = dither != null
+                    ? ditherImage(bitmap, dither)
+                    : new MonoPipeline(grayThreshold, 1f).toRaster(bitmap);
+            bitmapPool.release(bitmap);
+            RasterPrinter.append(printer, raster);
             
             // Start printing
             int status = printer.start();
             
             if (status == 0) {
-                result.put("success", true);
-                result.put("message", "Image printed with threshold successfully");
+                return PrintResult.printed("Image printed with threshold successfully");
             } else {
-                result.put("success", false);
-                result.put("error", "Print failed with status: " + status);
-                result.put("statusCode", status);
+                printerSession.invalidate();
+                return PrintResult.failed("Print failed with status: " + status, status);
             }
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
-            result.put("success", false);
-            result.put("error", "Printer error: " + e.getMessage());
+            printerSession.invalidate();
+            return PrintResult.failed("Printer error: " + e.getMessage());
         } catch (Exception e) {
             Log.e(TAG, "Error printing image with threshold: ", e);
-            result.put("success", false);
-            result.put("error", "Unexpected error: " + e.getMessage());
+            return PrintResult.failed("Unexpected error: " + e.getMessage());
         }
-        
-        return result;
     }
 
     /**
      * Print color bitmap
      */
-    private Map<String, Object> printColorBitmap(List<Integer> imageData) {
+    private Map<String, Object> printColorBitmap(Object imageData) {
         Map<String, Object> result = new HashMap<>();
         
         try {
@@ -1222,19 +1135,14 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             int printerStatus = printer.getStatus();
             if (printerStatus != 0) {
                 Log.w(TAG, "Printer not ready, status: " + printerStatus);
+                printerSession.invalidate();
                 result.put("success", false);
                 result.put("error", "Printer not ready: " + getStatusMessage(printerStatus));
                 return result;
             }
 
-            // Convert List<Integer> to byte array
-            byte[] imageBytes = new byte[imageData.size()];
-            for (int i = 0; i < imageData.size(); i++) {
-                imageBytes[i] = imageData.get(i).byteValue();
-            }
-
-            // Create bitmap from byte array
-            Bitmap bitmap = BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length);
+            // Decode straight from the bytes sent by Dart
+            Bitmap bitmap = decodeImage(imageData);
             if (bitmap == null) {
                 result.put("success", false);
                 result.put("error", "Failed to decode image");
@@ -1243,6 +1151,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
 
             // Print the color bitmap
             // printer.printColorBitmap(bitmap); // Method not available in current SDK version
+            bitmapPool.release(bitmap);
             
             // Start printing
             int status = printer.start();
@@ -1251,6 +1160,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 result.put("success", true);
                 result.put("message", "Color image printed successfully");
             } else {
+                printerSession.invalidate();
                 result.put("success", false);
                 result.put("error", "Print failed with status: " + status);
                 result.put("statusCode", status);
@@ -1258,6 +1168,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -1272,7 +1183,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
     /**
      * Print color bitmap with mono threshold
      */
-    private Map<String, Object> printColorBitmapWithMonoThreshold(List<Integer> imageData, int grayThreshold) {
+    private Map<String, Object> printColorBitmapWithMonoThreshold(Object imageData, int grayThreshold) {
         Map<String, Object> result = new HashMap<>();
         
         try {
@@ -1286,27 +1197,24 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             int printerStatus = printer.getStatus();
             if (printerStatus != 0) {
                 Log.w(TAG, "Printer not ready, status: " + printerStatus);
+                printerSession.invalidate();
                 result.put("success", false);
                 result.put("error", "Printer not ready: " + getStatusMessage(printerStatus));
                 return result;
             }
 
-            // Convert List<Integer> to byte array
-            byte[] imageBytes = new byte[imageData.size()];
-            for (int i = 0; i < imageData.size(); i++) {
-                imageBytes[i] = imageData.get(i).byteValue();
-            }
-
-            // Create bitmap from byte array
-            Bitmap bitmap = BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length);
+            // Decode straight from the bytes sent by Dart
+            Bitmap bitmap = decodeImage(imageData);
             if (bitmap == null) {
                 result.put("success", false);
                 result.put("error", "Failed to decode image");
                 return result;
             }
 
-            // Print the color bitmap with threshold
-            // printer.printColorBitmapWithMonoThreshold(bitmap, grayThreshold); // Method not available in current SDK version
+            // The SDK has no colour threshold method, so convert to mono on the raster workers
+            MonoRaster raster = new MonoPipeline(grayThreshold, 1f).toRaster(bitmap);
+            bitmapPool.release(bitmap);
+            RasterPrinter.append(printer, raster);
             
             // Start printing
             int status = printer.start();
@@ -1315,6 +1223,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 result.put("success", true);
                 result.put("message", "Color image printed with threshold successfully");
             } else {
+                printerSession.invalidate();
                 result.put("success", false);
                 result.put("error", "Print failed with status: " + status);
                 result.put("statusCode", status);
@@ -1322,6 +1231,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -1360,137 +1270,584 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
     }
 
     /**
-     * Print image with specified formatting
+     * Print an ordered list of elements (text, image, feed, cut) as one job.
+     *
+     * Every element is added to the printer buffer and start() is called once
+     * at the end, so a whole receipt costs a single print pass. A cut element
+     * flushes what has been buffered so far before cutting.
      */
-    private Map<String, Object> printImage(List<Integer> imageData, Map<String, Object> options) {
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> printDocument(List<Map<String, Object>> elements) {
         Map<String, Object> result = new HashMap<>();
-        
+
+        if (elements == null || elements.isEmpty()) {
+            throw new IllegalArgumentException("Document has no elements");
+        }
+
+        int index = 0;
         try {
             if (!initializePrinter(null)) {
                 result.put("success", false);
                 result.put("error", "Failed to initialize printer");
                 return result;
             }
-            
+
             // Check if printer is ready
             int printerStatus = printer.getStatus();
             if (printerStatus != 0) {
                 Log.w(TAG, "Printer not ready, status: " + printerStatus);
+                printerSession.invalidate();
                 result.put("success", false);
                 result.put("error", "Printer not ready: " + getStatusMessage(printerStatus));
                 return result;
             }
 
-            // Convert List<Integer> to byte array
-            byte[] imageBytes = new byte[imageData.size()];
-            for (int i = 0; i < imageData.size(); i++) {
-                imageBytes[i] = imageData.get(i).byteValue();
+            boolean buffered = false;
+            int skippedCuts = 0;
+            for (; index < elements.size(); index++) {
+                Map<String, Object> element = elements.get(index);
+                String type = element != null ? (String) element.get("type") : null;
+                if (type == null) {
+                    throw new IllegalArgumentException("Element " + index + " has no type");
+                }
+
+                Map<String, Object> options = (Map<String, Object>) element.get("options");
+                if (options == null) options = new HashMap<>();
+
+                switch (type) {
+                    case "text":
+                        String text = (String) element.get("text");
+                        if (text == null) {
+                            throw new IllegalArgumentException("Element " + index + " has no text");
+                        }
+                        appendText(text, options);
+                        break;
+
+                    case "image":
+                        if (!appendEncodedImage(element.get("imageData"), options)) {
+                            throw new IllegalArgumentException("Element " + index + " image could not be decoded");
+                        }
+                        break;
+
+                    case "asset":
+                        MonoRaster asset = printAssets.get((String) element.get("id"));
+                        if (asset == null) {
+                            throw new IllegalArgumentException("Element " + index + " has unknown asset: "
+                                    + element.get("id"));
+                        }
+                        RasterPrinter.append(printer, asset);
+                        break;
+
+                    case "feed":
+                        Integer pixels = (Integer) element.get("pixels");
+                        printer.step(pixels != null ? pixels : 48);
+                        break;
+
+                    case "cut":
+                        // Flush everything buffered so far, then cut
+                        int flushStatus = printer.start();
+                        if (flushStatus != 0) {
+                            return documentFailure(result, index, flushStatus);
+                        }
+                        if (printer.getCutMode() == -1) {
+                            Log.w(TAG, "Cut paper not supported on this device, skipping cut");
+                            skippedCuts++;
+                        } else {
+                            Integer mode = (Integer) element.get("mode");
+                            printer.cutPaper(mode != null ? mode : 0);
+                        }
+                        buffered = false;
+                        continue;
+
+                    default:
+                        throw new IllegalArgumentException("Element " + index + " has unknown type: " + type);
+                }
+                buffered = true;
             }
 
-            // Create bitmap from byte array
-            Bitmap bitmap = BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length);
-            if (bitmap == null) {
-                result.put("success", false);
-                result.put("error", "Failed to decode image");
-                return result;
+            if (buffered) {
+                int status = printer.start();
+                if (status != 0) {
+                    return documentFailure(result, elements.size() - 1, status);
+                }
             }
 
-            // Print the bitmap
-            printer.printBitmap(bitmap);
-            
-            // Start printing
-            int status = printer.start();
-            
-            if (status == 0) {
-                // Add a small delay to ensure printer processes the job
-                try {
-                    Thread.sleep(50); // 500ms delay
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-                
-                result.put("success", true);
-                result.put("message", "Image printed successfully");
-            } else {
-                result.put("success", false);
-                result.put("error", "Print failed with status: " + status);
-                result.put("statusCode", status);
-            }
-            
+            Log.d(TAG, "Document printed: " + elements.size() + " elements");
+            result.put("success", true);
+            result.put("message", "Document printed successfully");
+            result.put("elementCount", elements.size());
+            result.put("skippedCuts", skippedCuts);
+
         } catch (PrinterDevException e) {
-            Log.e(TAG, "Printer exception: ", e);
+            Log.e(TAG, "Printer exception at element " + index + ": ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
-        } catch (Exception e) {
-            Log.e(TAG, "Error printing image: ", e);
+            result.put("failedElement", index);
+        } catch (RuntimeException e) {
+            // Drop whatever was buffered so it doesn't leak into the next job
+            printerSession.invalidate();
+            throw e;
+        }
+
+        return result;
+    }
+
+    private Map<String, Object> documentFailure(Map<String, Object> result, int index, int status) {
+        printerSession.invalidate();
+        result.put("success", false);
+        result.put("error", "Print failed with status: " + status + " (" + getStatusMessage(status) + ")");
+        result.put("statusCode", status);
+        result.put("failedElement", index);
+        return result;
+    }
+
+    /**
+     * Add an encoded image to the print buffer, scaled to the printer's dot width.
+     * Images that are tall at that width are decoded and converted band by band
+     * so only one band is ever in memory; the rest are prepared once and kept
+     * in the raster cache, so printing the same bytes again skips the decode.
+     *
+     * @return false if the bytes are not a supported image
+     */
+    private boolean appendEncodedImage(Object imageData, Map<String, Object> options) throws PrinterDevException {
+        byte[] data;
+        int offset;
+        int length;
+        if (imageData instanceof ByteBuffer && ((ByteBuffer) imageData).hasArray()) {
+            ByteBuffer buffer = (ByteBuffer) imageData;
+            data = buffer.array();
+            offset = buffer.arrayOffset() + buffer.position();
+            length = buffer.remaining();
+        } else {
+            data = bytesOf(imageData);
+            offset = 0;
+            length = data.length;
+        }
+
+        int targetWidth = printerSession.dotWidth();
+        RasterCache.Key key = RasterCache.Key.of(data, offset, length, targetWidth, options);
+        PreparedImage cached = rasterCache.get(key);
+        if (cached != null) {
+            cached.appendTo(printer);
+            return true;
+        }
+
+        int height = BandDecoder.scaledHeight(data, offset, length, targetWidth);
+        if (height < 0) {
+            return false;
+        }
+
+        if (height > BandDecoder.TALL_IMAGE_ROWS) {
+            try {
+                BandDecoder.decode(data, offset, length, targetWidth, bitmapPool, imageSink(options));
+                return true;
+            } catch (IOException e) {
+                // Formats such as GIF can't be region-decoded; fall back to a full decode
+                Log.w(TAG, "Region decoding not supported, decoding whole image: " + e.getMessage());
+            }
+        }
+
+        Bitmap bitmap = ScaledDecoder.decode(data, offset, length, targetWidth, bitmapPool);
+        if (bitmap == null) {
+            return false;
+        }
+        PreparedImage image = prepareImage(bitmap, options);
+        image.appendTo(printer);
+        if (height > BandDecoder.TALL_IMAGE_ROWS || !rasterCache.put(key, image)) {
+            image.release(bitmapPool);
+        }
+        return true;
+    }
+
+    /**
+     * Convert a decoded bitmap as chosen in options. Rasters are packed on our
+     * side and the bitmap goes straight back to the pool; otherwise the
+     * prepared image keeps the bitmap for the SDK to convert.
+     */
+    private PreparedImage prepareImage(Bitmap bitmap, Map<String, Object> options) {
+        MonoRaster raster;
+        String dither = (String) options.get("dither");
+        if (dither != null) {
+            raster = ditherImage(bitmap, dither);
+        } else if (options.containsKey("threshold")) {
+            raster = monoPipeline(options, (Integer) options.get("threshold")).toRaster(bitmap);
+        } else if (options.containsKey("grayThreshold")) {
+            return PreparedImage.ofBitmap(bitmap, (Integer) options.get("grayThreshold"));
+        } else {
+            return PreparedImage.ofBitmap(bitmap, PreparedImage.NO_GRAY_THRESHOLD);
+        }
+        bitmapPool.release(bitmap);
+        return PreparedImage.ofRaster(raster);
+    }
+
+    /**
+     * Build the conversion chosen in options for the bands of one image:
+     * "dither" error-diffuses it and "threshold" packs it to 1bpp on our side,
+     * "grayThreshold" uses the SDK's own mono conversion, otherwise the SDK
+     * prints it as is.
+     */
+    private BandDecoder.BandSink imageSink(Map<String, Object> options) {
+        String dither = (String) options.get("dither");
+        if (dither != null) {
+            if ("bayer".equalsIgnoreCase(dither)) {
+                return (band, firstRow) -> RasterPrinter.append(printer, OrderedDither.toRaster(band, firstRow), false);
+            }
+            final Dither.Kernel kernel = Dither.Kernel.fromName(dither);
+            return new BandDecoder.BandSink() {
+                private Dither diffusion;
+
+                @Override
+                public void append(Bitmap band, int firstRow) throws PrinterDevException {
+                    // One diffusion for the whole image so the error carries across bands
+                    if (diffusion == null) {
+                        diffusion = new Dither(kernel, band.getWidth());
+                    }
+                    RasterPrinter.append(printer, diffusion.next(band), false);
+                }
+            };
+        }
+
+        if (options.containsKey("threshold")) {
+            final MonoPipeline pipeline = monoPipeline(options, (Integer) options.get("threshold"));
+            return (band, firstRow) -> RasterPrinter.append(printer, pipeline.toRaster(band), false);
+        }
+
+        if (options.containsKey("grayThreshold")) {
+            final int grayThreshold = (Integer) options.get("grayThreshold");
+            return (band, firstRow) -> printer.printBitmapWithMonoThreshold(band, grayThreshold);
+        }
+
+        return (band, firstRow) -> printer.printBitmap(band);
+    }
+
+    /**
+     * Threshold pipeline for the image options, with the optional "contrast" factor
+     *
+     * @param threshold luma threshold, or null for the default
+     */
+    private MonoPipeline monoPipeline(Map<String, Object> options, Integer threshold) {
+        Number contrast = (Number) options.get("contrast");
+        return new MonoPipeline(threshold != null ? threshold : MonoRaster.DEFAULT_THRESHOLD,
+                contrast != null ? contrast.floatValue() : 1f);
+    }
+
+    /**
+     * Dither a bitmap with the named mode: "bayer" for parallel ordered dithering,
+     * otherwise an error-diffusion kernel name
+     */
+    private MonoRaster ditherImage(Bitmap bitmap, String mode) {
+        if ("bayer".equalsIgnoreCase(mode)) {
+            return OrderedDither.toRaster(bitmap);
+        }
+        return Dither.toRaster(bitmap, Dither.Kernel.fromName(mode));
+    }
+
+    /**
+     * Decode encoded image bytes sent from Dart, downsampled to the printer's dot width.
+     *
+     * Uint8List arrives as byte[] and is decoded in place; a heap ByteBuffer is
+     * decoded from its backing array.
+     *
+     * @return the decoded bitmap, or null if the bytes are not a supported image
+     */
+    private Bitmap decodeImage(Object imageData) {
+        int targetWidth = printerSession.dotWidth();
+        if (imageData instanceof ByteBuffer && ((ByteBuffer) imageData).hasArray()) {
+            ByteBuffer buffer = (ByteBuffer) imageData;
+            return ScaledDecoder.decode(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining(), targetWidth, bitmapPool);
+        }
+
+        byte[] imageBytes = bytesOf(imageData);
+        return ScaledDecoder.decode(imageBytes, 0, imageBytes.length, targetWidth, bitmapPool);
+    }
+
+    /**
+     * Get the raw bytes of a binary argument sent from Dart. byte[] is returned as is;
+     * List<int> is still accepted from older callers but costs a boxed copy.
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] bytesOf(Object data) {
+        if (data instanceof byte[]) {
+            return (byte[]) data;
+        }
+
+        if (data instanceof ByteBuffer) {
+            ByteBuffer buffer = (ByteBuffer) data;
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
+        }
+
+        if (data instanceof List) {
+            // Legacy List<int> payload
+            List<Integer> values = (List<Integer>) data;
+            byte[] bytes = new byte[values.size()];
+            for (int i = 0; i < values.size(); i++) {
+                bytes[i] = values.get(i).byteValue();
+            }
+            return bytes;
+        }
+
+        throw new IllegalArgumentException("Expected Uint8List, ByteBuffer or List<int> but got "
+                + (data == null ? "null" : data.getClass().getSimpleName()));
+    }
+
+    /**
+     * Check a printer call against the open raster image job. Its bands are already
+     * in the printer buffer, so anything that prints, flushes or re-initializes the
+     * printer before the job ends would mix into them or wipe them.
+     *
+     * @return a failure to reply with, or null if the call may run
+     */
+    private PrintResult rasterJobConflict(MethodCall call) {
+        ImageJob raster = imageJobs.openRaster();
+        if (raster == null) {
+            return null;
+        }
+
+        switch (call.method) {
+            case "appendImageChunk":
+            case "abortImageJob":
+            case "getPrinterStatus":
+                return null;
+            case "beginImageJob":
+                if (!"raster".equals(call.argument("format"))) {
+                    return null;
+                }
+                break;
+            case "commitImageJob":
+                Number jobId = call.argument("jobId");
+                if (jobId != null && jobId.longValue() == raster.getId()) {
+                    return null;
+                }
+                break;
+            default:
+                break;
+        }
+        return PrintResult.failed("Printer is busy with raster image job " + raster.getId()
+                + "; commit or abort it first");
+    }
+
+    /**
+     * Start a chunked image upload.
+     *
+     * "encoded" jobs take an encoded image of totalBytes and print it on commit;
+     * "raster" jobs take packed 1-bit rows of the given width in dots and print
+     * them band by band while chunks arrive.
+     */
+    private Map<String, Object> beginImageJob(String format, int totalBytes, int width) {
+        Map<String, Object> result = new HashMap<>();
+
+        ImageJob.Format jobFormat;
+        if (format == null || "encoded".equals(format)) {
+            jobFormat = ImageJob.Format.ENCODED;
+        } else if ("raster".equals(format)) {
+            jobFormat = ImageJob.Format.RASTER;
+        } else {
+            throw new IllegalArgumentException("Unknown image job format: " + format);
+        }
+
+        if (!initializePrinter(null)) {
             result.put("success", false);
-            result.put("error", "Unexpected error: " + e.getMessage());
+            result.put("error", "Failed to initialize printer");
+            return result;
         }
-        
+
+        ImageJob job = imageJobs.begin(jobFormat, printer, totalBytes, width);
+        result.put("success", true);
+        result.put("jobId", job.getId());
         return result;
     }
 
     /**
-     * Print text with specified formatting
+     * Add the next chunk to an image job
+     */
+    private PrintResult appendImageChunk(long jobId, Object data) {
+        ImageJob job = imageJobs.get(jobId);
+        try {
+            job.append(bytesOf(data));
+            return PrintResult.printed("Chunk received");
+        } catch (PrinterDevException e) {
+            Log.e(TAG, "Printer exception in image job " + jobId + ": ", e);
+            printerSession.invalidate();
+            imageJobs.end(jobId);
+            return PrintResult.failed("Printer error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            printerSession.invalidate();
+            imageJobs.end(jobId);
+            return PrintResult.failed(e.getMessage());
+        } catch (RuntimeException e) {
+            // e.g. a chunk past the declared size; the job can't continue either way
+            discardImageJob(jobId);
+            return PrintResult.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * Finish an image job and print whatever it still holds
+     */
+    private PrintResult commitImageJob(long jobId, Map<String, Object> options) {
+        ImageJob job = imageJobs.get(jobId);
+        try {
+            int status;
+            if (job.getFormat() == ImageJob.Format.RASTER) {
+                status = job.finishRaster();
+            } else {
+                if (!appendEncodedImage(job.encodedBytes(), options)) {
+                    return PrintResult.failed("Failed to decode image");
+                }
+                status = printer.start();
+            }
+
+            if (status != 0) {
+                printerSession.invalidate();
+                return PrintResult.failed("Print failed with status: " + status, status);
+            }
+            return PrintResult.printed("Image job printed successfully");
+
+        } catch (PrinterDevException e) {
+            Log.e(TAG, "Printer exception in image job " + jobId + ": ", e);
+            printerSession.invalidate();
+            return PrintResult.failed("Printer error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            printerSession.invalidate();
+            return PrintResult.failed(e.getMessage());
+        } finally {
+            // A raster job that fails here (e.g. a partial last row) may still have bands buffered
+            discardImageJob(jobId);
+        }
+    }
+
+    /**
+     * End an image job. If the job already handed bands to the printer without
+     * flushing them, the printer is re-initialized so they don't print with the next job.
+     *
+     * @return true if the job was open
      */
-    private Map<String, Object> printText(String text, Map<String, Object> options) {
+    private boolean discardImageJob(long jobId) {
+        ImageJob job = imageJobs.find(jobId);
+        if (job == null) {
+            return false;
+        }
+        if (job.hasBufferedRows()) {
+            Log.d(TAG, "Image job " + jobId + " ended with unprinted bands, dropping them");
+            printerSession.invalidate();
+        }
+        return imageJobs.end(jobId);
+    }
+
+    /**
+     * Rasterize an image or a text block once and keep it for printAsset. Images use
+     * the "dither" or "threshold" options like printImage; text is rendered with the
+     * canvas text renderer and its fontSize/alignment options.
+     */
+    private Map<String, Object> registerPrintAsset(String id, Object imageData, String text,
+                                                   Map<String, Object> options, boolean persist) {
         Map<String, Object> result = new HashMap<>();
-        
+        if ((imageData == null) == (text == null)) {
+            throw new IllegalArgumentException("Pass either imageData or text");
+        }
+
+        Bitmap bitmap = imageData != null ? decodeImage(imageData) : createArabicTextBitmap(text, options);
+        if (bitmap == null) {
+            result.put("success", false);
+            result.put("error", imageData != null ? "Failed to decode image" : "Failed to render text");
+            return result;
+        }
+
+        MonoRaster raster;
+        String dither = (String) options.get("dither");
+        if (dither != null) {
+            raster = ditherImage(bitmap, dither);
+        } else {
+            // grayThreshold is honoured too, since assets never go through the SDK's conversion
+            Integer threshold = (Integer) options.get("threshold");
+            if (threshold == null) threshold = (Integer) options.get("grayThreshold");
+            raster = monoPipeline(options, threshold).toRaster(bitmap);
+        }
+        bitmapPool.release(bitmap);
+
         try {
+            printAssets.put(id, raster, persist);
+            result.put("persisted", persist);
+        } catch (IOException e) {
+            // Still registered and usable for this run
+            Log.e(TAG, "Failed to persist print asset " + id + ": ", e);
+            result.put("persisted", false);
+            result.put("persistError", e.getMessage());
+        }
+        result.put("success", true);
+        result.put("id", id);
+        result.put("width", raster.width);
+        result.put("height", raster.height);
+        return result;
+    }
+
+    /**
+     * Print a registered asset by id
+     */
+    private PrintResult printAsset(String id) {
+        try {
+            MonoRaster raster = printAssets.get(id);
+            if (raster == null) {
+                return PrintResult.failed("Unknown print asset: " + id);
+            }
+
             if (!initializePrinter(null)) {
-                result.put("success", false);
-                result.put("error", "Failed to initialize printer");
-                return result;
+                return PrintResult.failed("Failed to initialize printer");
             }
-            
+
             // Check if printer is ready
             int printerStatus = printer.getStatus();
             if (printerStatus != 0) {
                 Log.w(TAG, "Printer not ready, status: " + printerStatus);
-                result.put("success", false);
-                result.put("error", "Printer not ready: " + getStatusMessage(printerStatus));
-                return result;
+                printerSession.invalidate();
+                return PrintResult.failed("Printer not ready: " + getStatusMessage(printerStatus));
             }
 
-            // Check if text contains Arabic characters
-            if (containsArabicText(text)) {
-                // Convert Arabic text to bitmap and print as image
-                return printArabicTextAsImage(text, options);
+            RasterPrinter.append(printer, raster);
+            int status = printer.start();
+            if (status == 0) {
+                return PrintResult.printed("Asset printed successfully");
+            } else {
+                printerSession.invalidate();
+                return PrintResult.failed("Print failed with status: " + status, status);
             }
 
-            // Apply font settings if provided
-            if (options.containsKey("fontSize")) {
-                String fontSize = (String) options.get("fontSize");
-                setFontSize(fontSize);
-            }
+        } catch (PrinterDevException e) {
+            Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
+            return PrintResult.failed("Printer error: " + e.getMessage());
+        } catch (Exception e) {
+            Log.e(TAG, "Error printing asset " + id + ": ", e);
+            return PrintResult.failed("Unexpected error: " + e.getMessage());
+        }
+    }
 
-            // Apply gray level if provided
-            if (options.containsKey("grayLevel")) {
-                Integer grayLevel = (Integer) options.get("grayLevel");
-                printer.setGray(grayLevel);
+    /**
+     * Print image with specified formatting
+     */
+    private PrintResult printImage(Object imageData, Map<String, Object> options) {
+        try {
+            if (!initializePrinter(null)) {
+                return PrintResult.failed("Failed to initialize printer");
             }
-
-            // Set spacing if provided
-            if (options.containsKey("lineSpacing") || options.containsKey("charSpacing")) {
-                byte lineSpacing = options.containsKey("lineSpacing") ? 
-                    ((Integer) options.get("lineSpacing")).byteValue() : 0;
-                byte charSpacing = options.containsKey("charSpacing") ? 
-                    ((Integer) options.get("charSpacing")).byteValue() : 0;
-                printer.spaceSet(charSpacing, lineSpacing);
+            
+            // Check if printer is ready
+            int printerStatus = printer.getStatus();
+            if (printerStatus != 0) {
+                Log.w(TAG, "Printer not ready, status: " + printerStatus);
+                printerSession.invalidate();
+                return PrintResult.failed("Printer not ready: " + getStatusMessage(printerStatus));
             }
 
-            // Handle alignment by adjusting text format
-            String formattedText = text;
-            if (options.containsKey("alignment")) {
-                Integer alignment = (Integer) options.get("alignment");
-                formattedText = formatTextWithAlignment(text, alignment);
+            // Decode straight from the bytes sent by Dart and add it to the print buffer
+            if (!appendEncodedImage(imageData, options)) {
+                return PrintResult.failed("Failed to decode image");
             }
-
-            // Print the text
-            String charset = options.containsKey("charset") ? 
-                (String) options.get("charset") : "UTF-8";
-            printer.printStr(formattedText, charset);
-
+            
             // Start printing
             int status = printer.start();
             
@@ -1502,80 +1859,41 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                     Thread.currentThread().interrupt();
                 }
                 
-                result.put("success", true);
-                result.put("message", "Text printed successfully");
+                return PrintResult.printed("Image printed successfully");
             } else {
-                result.put("success", false);
-                result.put("error", "Print failed with status: " + status);
-                result.put("statusCode", status);
+                printerSession.invalidate();
+                return PrintResult.failed("Print failed with status: " + status, status);
             }
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
-            result.put("success", false);
-            result.put("error", "Printer error: " + e.getMessage());
+            printerSession.invalidate();
+            return PrintResult.failed("Printer error: " + e.getMessage());
         } catch (Exception e) {
-            Log.e(TAG, "Error printing text: ", e);
-            result.put("success", false);
-            result.put("error", "Unexpected error: " + e.getMessage());
-        }
-        
-        return result;
-    }
-
-    /**
-     * Check if text contains Arabic characters
-     */
-    private boolean containsArabicText(String text) {
-        if (text == null) return false;
-        
-        for (int i = 0; i < text.length(); i++) {
-            char c = text.charAt(i);
-            // Arabic Unicode range: 0600-06FF, 0750-077F, 08A0-08FF, FB50-FDFF, FE70-FEFF
-            if ((c >= 0x0600 && c <= 0x06FF) || 
-                (c >= 0x0750 && c <= 0x077F) || 
-                (c >= 0x08A0 && c <= 0x08FF) || 
-                (c >= 0xFB50 && c <= 0xFDFF) || 
-                (c >= 0xFE70 && c <= 0xFEFF)) {
-                return true;
-            }
+            Log.e(TAG, "Error printing image: ", e);
+            return PrintResult.failed("Unexpected error: " + e.getMessage());
         }
-        return false;
     }
 
     /**
-     * Convert Arabic text to bitmap and print as image
+     * Print text with specified formatting
      */
-    private Map<String, Object> printArabicTextAsImage(String text, Map<String, Object> options) {
-        Map<String, Object> result = new HashMap<>();
-        
+    private PrintResult printText(String text, Map<String, Object> options) {
         try {
             if (!initializePrinter(null)) {
-                result.put("success", false);
-                result.put("error", "Failed to initialize printer");
-                return result;
+                return PrintResult.failed("Failed to initialize printer");
             }
             
             // Check if printer is ready
             int printerStatus = printer.getStatus();
             if (printerStatus != 0) {
                 Log.w(TAG, "Printer not ready, status: " + printerStatus);
-                result.put("success", false);
-                result.put("error", "Printer not ready: " + getStatusMessage(printerStatus));
-                return result;
+                printerSession.invalidate();
+                return PrintResult.failed("Printer not ready: " + getStatusMessage(printerStatus));
             }
 
-            // Create bitmap from Arabic text
-            Bitmap textBitmap = createArabicTextBitmap(text, options);
-            if (textBitmap == null) {
-                result.put("success", false);
-                result.put("error", "Failed to create text bitmap");
-                return result;
-            }
+            boolean arabic = appendText(text, options);
 
-            // Print the bitmap directly
-            printer.printBitmap(textBitmap);
-            
             // Start printing
             int status = printer.start();
             
@@ -1587,25 +1905,95 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                     Thread.currentThread().interrupt();
                 }
                 
-                result.put("success", true);
-                result.put("message", "Arabic text printed successfully as image");
+                return PrintResult.printed(arabic ? "Arabic text printed successfully as image" : "Text printed successfully");
             } else {
-                result.put("success", false);
-                result.put("error", "Print failed with status: " + status);
-                result.put("statusCode", status);
+                printerSession.invalidate();
+                return PrintResult.failed("Print failed with status: " + status, status);
             }
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
-            result.put("success", false);
-            result.put("error", "Printer error: " + e.getMessage());
+            printerSession.invalidate();
+            return PrintResult.failed("Printer error: " + e.getMessage());
         } catch (Exception e) {
-            Log.e(TAG, "Error printing Arabic text: ", e);
-            result.put("success", false);
-            result.put("error", "Unexpected error: " + e.getMessage());
+            Log.e(TAG, "Error printing text: ", e);
+            return PrintResult.failed("Unexpected error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply text formatting and add the text to the print buffer without starting the print
+     *
+     * @return true if the text was rendered as an image because it contains Arabic
+     */
+    private boolean appendText(String text, Map<String, Object> options) throws PrinterDevException {
+        // Check if text contains Arabic characters
+        if (containsArabicText(text)) {
+            // Convert Arabic text to bitmap and print as image
+            Bitmap textBitmap = createArabicTextBitmap(text, options);
+            if (textBitmap == null) {
+                throw new IllegalStateException("Failed to create text bitmap");
+            }
+            // Printed as rendered, not trimmed: the SDK handles the anti-aliased edges and
+            // the blank rows around each line keep the spacing between printText calls
+            printer.printBitmap(textBitmap);
+            bitmapPool.release(textBitmap);
+            return true;
         }
+
+        // Apply font settings if provided
+        if (options.containsKey("fontSize")) {
+            String fontSize = (String) options.get("fontSize");
+            applyFontSize(fontSize);
+        }
+
+        // Apply gray level if provided
+        if (options.containsKey("grayLevel")) {
+            Integer grayLevel = (Integer) options.get("grayLevel");
+            printer.setGray(grayLevel);
+        }
+
+        // Set spacing if provided
+        if (options.containsKey("lineSpacing") || options.containsKey("charSpacing")) {
+            byte lineSpacing = options.containsKey("lineSpacing") ? 
+                ((Integer) options.get("lineSpacing")).byteValue() : 0;
+            byte charSpacing = options.containsKey("charSpacing") ? 
+                ((Integer) options.get("charSpacing")).byteValue() : 0;
+            printer.spaceSet(charSpacing, lineSpacing);
+        }
+
+        // Handle alignment by adjusting text format
+        String formattedText = text;
+        if (options.containsKey("alignment")) {
+            Integer alignment = (Integer) options.get("alignment");
+            formattedText = formatTextWithAlignment(text, alignment);
+        }
+
+        // Print the text
+        String charset = options.containsKey("charset") ? 
+            (String) options.get("charset") : "UTF-8";
+        printer.printStr(formattedText, charset);
+        return false;
+    }
+
+    /**
+     * Check if text contains Arabic characters
+     */
+    private boolean containsArabicText(String text) {
+        if (text == null) return false;
         
-        return result;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            // Arabic Unicode range: 0600-06FF, 0750-077F, 08A0-08FF, FB50-FDFF, FE70-FEFF
+            if ((c >= 0x0600 && c <= 0x06FF) || 
+                (c >= 0x0750 && c <= 0x077F) || 
+                (c >= 0x08A0 && c <= 0x08FF) || 
+                (c >= 0xFB50 && c <= 0xFDFF) || 
+                (c >= 0xFE70 && c <= 0xFEFF)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -1639,53 +2027,38 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 alignment = (Integer) options.get("alignment");
             }
 
-            // Calculate text dimensions
-            android.graphics.Paint paint = new android.graphics.Paint();
-            paint.setTextSize(fontSize);
-            paint.setAntiAlias(true);
-            paint.setSubpixelText(true);
-            
-            // Set text alignment
-            switch (alignment) {
-                case 1: // Center
-                    paint.setTextAlign(android.graphics.Paint.Align.CENTER);
-                    break;
-                case 2: // Right
-                    paint.setTextAlign(android.graphics.Paint.Align.RIGHT);
-                    break;
-                default: // Left
-                    paint.setTextAlign(android.graphics.Paint.Align.LEFT);
-                    break;
-            }
-
             // Split text into lines
             String[] lines = text.split("\n");
-            int maxWidth = 384; // Standard thermal printer width
+            int maxWidth = printerSession.dotWidth();
             int lineHeight = fontSize + 4;
             int totalHeight = lines.length * lineHeight;
 
-            // Create bitmap
-            Bitmap bitmap = Bitmap.createBitmap(maxWidth, totalHeight, Bitmap.Config.RGB_565);
+            // Borrow a white bitmap from the pool
+            Bitmap bitmap = bitmapPool.get(maxWidth, totalHeight, Bitmap.Config.RGB_565);
             android.graphics.Canvas canvas = new android.graphics.Canvas(bitmap);
-            canvas.drawColor(android.graphics.Color.WHITE);
+            android.graphics.Paint maskPaint = new android.graphics.Paint();
+            maskPaint.setColor(android.graphics.Color.BLACK);
 
-            // Draw text lines
+            // Blit each line's cached mask; only lines not seen before are shaped and drawn
             int y = fontSize;
             for (String line : lines) {
-                float x = 0;
-                switch (alignment) {
-                    case 1: // Center
-                        x = maxWidth / 2f;
-                        break;
-                    case 2: // Right
-                        x = maxWidth - 10;
-                        break;
-                    default: // Left
-                        x = 10;
-                        break;
+                TextRunCache.Run run = textRuns.run(line, fontSize, android.graphics.Typeface.DEFAULT);
+                if (run != null) {
+                    float x;
+                    switch (alignment) {
+                        case 1: // Center
+                            x = (maxWidth - run.width()) / 2f;
+                            break;
+                        case 2: // Right
+                            x = maxWidth - 10 - run.width();
+                            break;
+                        default: // Left
+                            x = 10;
+                            break;
+                    }
+                    canvas.drawBitmap(run.mask, x, y - run.baseline, maskPaint);
+                    textRuns.release(run);
                 }
-                
-                canvas.drawText(line, x, y, paint);
                 y += lineHeight;
             }
 
@@ -1697,77 +2070,26 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
         }
     }
 
-    /**
-     * Convert bitmap to byte array for printing
-     */
-    private byte[] bitmapToByteArray(Bitmap bitmap) {
-        try {
-            // Convert bitmap to grayscale byte array
-            int width = bitmap.getWidth();
-            int height = bitmap.getHeight();
-            
-            byte[] data = new byte[width * height / 8];
-            int dataIndex = 0;
-            int bitIndex = 0;
-            
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    int pixel = bitmap.getPixel(x, y);
-                    int gray = (android.graphics.Color.red(pixel) + 
-                               android.graphics.Color.green(pixel) + 
-                               android.graphics.Color.blue(pixel)) / 3;
-                    
-                    boolean isBlack = gray < 128;
-                    
-                    if (isBlack) {
-                        data[dataIndex] |= (1 << (7 - bitIndex));
-                    }
-                    
-                    bitIndex++;
-                    if (bitIndex == 8) {
-                        bitIndex = 0;
-                        dataIndex++;
-                    }
-                }
-            }
-            
-            return data;
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Error converting bitmap to byte array: ", e);
-            return new byte[0];
-        }
-    }
-
     /**
      * Get printer status
      */
-    private Map<String, Object> getPrinterStatus() {
-        Map<String, Object> result = new HashMap<>();
-        
+    private PrintResult getPrinterStatus() {
         try {
             if (!initializePrinter(null)) {
-                result.put("success", false);
-                result.put("error", "Failed to initialize printer");
-                return result;
+                return PrintResult.failed("Failed to initialize printer");
             }
 
             int status = printer.getStatus();
-            result.put("success", true);
-            result.put("status", status);
-            result.put("statusMessage", getStatusMessage(status));
+            return PrintResult.status(status, getStatusMessage(status));
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
-            result.put("success", false);
-            result.put("error", "Printer error: " + e.getMessage());
+            printerSession.invalidate();
+            return PrintResult.failed("Printer error: " + e.getMessage());
         } catch (Exception e) {
             Log.e(TAG, "Error getting printer status: ", e);
-            result.put("success", false);
-            result.put("error", "Unexpected error: " + e.getMessage());
+            return PrintResult.failed("Unexpected error: " + e.getMessage());
         }
-        
-        return result;
     }
 
     /**
@@ -1803,6 +2125,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             } catch (PrinterDevException cutException) {
                 // Handle PrinterDevException from cutPaper
                 Log.e(TAG, "Printer exception during cut: ", cutException);
+                printerSession.invalidate();
                 if (cutException.getMessage() != null && 
                     cutException.getMessage().contains("not support")) {
                     result.put("success", false);
@@ -1853,6 +2176,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
             
         } catch (PrinterDevException e) {
             Log.e(TAG, "Printer exception: ", e);
+            printerSession.invalidate();
             result.put("success", false);
             result.put("error", "Printer error: " + e.getMessage());
         } catch (Exception e) {
@@ -1965,18 +2289,6 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
         }
     }
 
-    /**
-     * Convert byte array to hex string
-     */
-    private String bytesToHex(byte[] bytes) {
-        if (bytes == null) return "null";
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02X ", b));
-        }
-        return sb.toString().trim();
-    }
-
     /**
      * Test native library loading
      */
@@ -2037,96 +2349,240 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
 
     @Override
     public void onMethodCall(@NonNull MethodCall call, @NonNull Result result) {
+        if ("submitPrintJob".equals(call.method)) {
+            submitPrintJob(call, result);
+            return;
+        }
+        if ("detectCard".equals(call.method)) {
+            // Known to cancelDetection from now on, even while it waits behind other NFC calls
+            String detectToken = call.argument("token");
+            if (detectToken != null) {
+                detections.enqueue(detectToken);
+            }
+        }
+        dispatcher.dispatch(laneFor(call.method), result, () -> handleMethodCall(call));
+    }
+
+    /**
+     * Queue a printer method as a print job; the reply is the job id once the job is queued
+     */
+    private void submitPrintJob(MethodCall call, Result result) {
+        String method = call.argument("method");
+        Map<String, Object> arguments = call.argument("arguments");
+        if (method == null || laneFor(method) != DeviceDispatcher.Lane.PRINTER) {
+            result.error("invalid_argument", "Not a printer method: " + method, null);
+            return;
+        }
+
+        printJobQueue.submit(method, arguments, new PrintJobQueue.SubmitCallback() {
+            @Override
+            public void onAccepted(long jobId) {
+                Map<String, Object> reply = new HashMap<>();
+                reply.put("success", true);
+                reply.put("jobId", jobId);
+                dispatcher.postToMain(() -> result.success(reply));
+            }
+
+            @Override
+            public void onRejected(String reason) {
+                Map<String, Object> reply = new HashMap<>();
+                reply.put("success", false);
+                reply.put("rejected", true);
+                reply.put("error", reason);
+                dispatcher.postToMain(() -> result.success(reply));
+            }
+        });
+    }
+
+    /**
+     * Pick the device lane a method runs on
+     */
+    private DeviceDispatcher.Lane laneFor(String method) {
+        switch (method) {
+            case "detectCard":
+            case "checkCardPresence":
+            case "waitForCard":
+            case "tryAllModes":
+            case "startNfcDetectionThreads":
+            case "setCardAccepting":
+            case "setPiccIdleTimeout":
+            case "closePicc":
+                return DeviceDispatcher.Lane.NFC;
+            case "getPlatformVersion":
+            case "getCapabilities":
+            case "cancelDetection":
+            case "configurePrintQueue":
+            case "getPrintQueueStatus":
+            case "getImageCacheStats":
+            case "testNativeLibraryLoading":
+                return DeviceDispatcher.Lane.SYSTEM;
+            case "executeBatch":
+                // Waits on the device lanes, so it must not hold up cancelDetection and friends
+                return DeviceDispatcher.Lane.BATCH;
+            default:
+                return DeviceDispatcher.Lane.PRINTER;
+        }
+    }
+
+    /**
+     * Handle a method call on its device lane and return the reply value
+     */
+    private Object handleMethodCall(MethodCall call) {
+        if (laneFor(call.method) == DeviceDispatcher.Lane.PRINTER) {
+            PrintResult busy = rasterJobConflict(call);
+            if (busy != null) {
+                return busy;
+            }
+        }
+
         switch (call.method) {
             case "getPlatformVersion":
-                result.success("Android " + android.os.Build.VERSION.RELEASE);
-                break;
+                return "Android " + android.os.Build.VERSION.RELEASE;
                 
             // ===== NFC METHODS =====
             case "detectCard":
-                Map<String, Object> cardResult = detectAndIdentifyCard(appContext);
-                result.success(cardResult);
-                break;
+                Integer detectTimeoutMs = call.argument("timeoutMs");
+                Integer pollIntervalMs = call.argument("pollIntervalMs");
+                if (detectTimeoutMs == null) detectTimeoutMs = (int) DetectionScheduler.DEFAULT_TIMEOUT_MS;
+                if (pollIntervalMs == null) pollIntervalMs = (int) DetectionScheduler.DEFAULT_INITIAL_INTERVAL_MS;
+                String detectToken = call.argument("token");
+                return detectAndIdentifyCard(appContext, detectTimeoutMs, pollIntervalMs, detectToken);
                 
             case "checkCardPresence":
                 boolean present = isCardPresent(appContext);
-                result.success(present);
-                break;
+                return present;
                 
             case "waitForCard":
                 waitForCardAndProcess(appContext);
-                result.success("Waiting for card...");
-                break;
+                return "Waiting for card...";
                 
             case "tryAllModes":
                 tryAllDetectionModes(appContext);
-                result.success("Testing all detection modes");
-                break;
+                return "Testing all detection modes";
                 
             // Legacy method name for backward compatibility
             case "startNfcDetectionThreads":
                 detectAndIdentifyCard(appContext);
-                result.success("NFC detection started");
-                break;
+                return "NFC detection started";
+                
+            case "cancelDetection":
+                String cancelToken = call.argument("token");
+                return cancelDetection(cancelToken);
+                
+            case "setCardAccepting":
+                Boolean accepting = call.argument("accepting");
+                piccSession.setCardAccepting(accepting != null && accepting);
+                return true;
+                
+            case "setPiccIdleTimeout":
+                Integer idleTimeoutMs = call.argument("timeoutMs");
+                if (idleTimeoutMs == null) {
+                    throw new IllegalArgumentException("timeoutMs is required");
+                }
+                piccSession.setIdleTimeout(idleTimeoutMs);
+                return true;
+                
+            case "closePicc":
+                piccSession.close();
+                return true;
                 
             // ===== PRINTER METHODS =====
             case "initializePrinter":
+                printerSession.invalidate();
                 boolean initialized = initializePrinter(appContext);
-                result.success(initialized);
-                break;
+                return initialized;
                 
             case "printText":
                 String text = call.argument("text");
                 Map<String, Object> textOptions = call.argument("options");
                 if (textOptions == null) textOptions = new HashMap<>();
-                Map<String, Object> textResult = printText(text, textOptions);
-                result.success(textResult);
-                break;
+                PrintResult textResult = printText(text, textOptions);
+                return textResult;
                 
             case "printImage":
-                List<Integer> imageData = call.argument("imageData");
+                Object imageData = call.argument("imageData");
                 Map<String, Object> imageOptions = call.argument("options");
                 if (imageOptions == null) imageOptions = new HashMap<>();
-                Map<String, Object> imageResult = printImage(imageData, imageOptions);
-                result.success(imageResult);
-                break;
+                PrintResult imageResult = printImage(imageData, imageOptions);
+                return imageResult;
                 
+            case "registerPrintAsset":
+                Map<String, Object> assetOptions = call.argument("options");
+                if (assetOptions == null) assetOptions = new HashMap<>();
+                Boolean persistAsset = call.argument("persist");
+                return registerPrintAsset(call.argument("id"), call.argument("imageData"), call.argument("text"),
+                        assetOptions, persistAsset != null && persistAsset);
+
+            case "printAsset":
+                return printAsset(call.argument("id"));
+
+            case "removePrintAsset":
+                Map<String, Object> removeAssetResult = new HashMap<>();
+                removeAssetResult.put("success", true);
+                removeAssetResult.put("removed", printAssets.remove(call.argument("id")));
+                return removeAssetResult;
+
+            case "printDocument":
+                List<Map<String, Object>> elements = call.argument("elements");
+                return printDocument(elements);
+
+            case "beginImageJob":
+                String imageJobFormat = call.argument("format");
+                Integer totalBytes = call.argument("totalBytes");
+                Integer rasterWidth = call.argument("width");
+                return beginImageJob(imageJobFormat, totalBytes != null ? totalBytes : 0,
+                        rasterWidth != null ? rasterWidth : 0);
+
+            case "appendImageChunk":
+                Number appendJobId = call.argument("jobId");
+                if (appendJobId == null) throw new IllegalArgumentException("jobId is required");
+                return appendImageChunk(appendJobId.longValue(), call.argument("data"));
+
+            case "commitImageJob":
+                Number commitJobId = call.argument("jobId");
+                if (commitJobId == null) throw new IllegalArgumentException("jobId is required");
+                Map<String, Object> commitOptions = call.argument("options");
+                if (commitOptions == null) commitOptions = new HashMap<>();
+                return commitImageJob(commitJobId.longValue(), commitOptions);
+
+            case "abortImageJob":
+                Number abortJobId = call.argument("jobId");
+                if (abortJobId == null) throw new IllegalArgumentException("jobId is required");
+                Map<String, Object> abortResult = new HashMap<>();
+                abortResult.put("success", true);
+                abortResult.put("aborted", discardImageJob(abortJobId.longValue()));
+                return abortResult;
+
             case "getPrinterStatus":
-                Map<String, Object> statusResult = getPrinterStatus();
-                result.success(statusResult);
-                break;
+                PrintResult statusResult = getPrinterStatus();
+                return statusResult;
                 
             case "cutPaper":
                 Integer cutMode = call.argument("mode");
                 if (cutMode == null) cutMode = 0; // Default to full cut
                 Map<String, Object> cutResult = cutPaper(cutMode);
-                result.success(cutResult);
-                break;
+                return cutResult;
                 
             case "feedPaper":
                 Integer pixels = call.argument("pixels");
                 if (pixels == null) pixels = 48; // Default feed
                 Map<String, Object> feedResult = feedPaper(pixels);
-                result.success(feedResult);
-                break;
+                return feedResult;
                 
             case "isCutSupported":
                 boolean cutSupported = isCutSupported();
-                result.success(cutSupported);
-                break;
+                return cutSupported;
                 
             // ===== NEW PRINTER METHODS =====
             case "setFontSize":
                 String fontSize = call.argument("fontSize");
                 Map<String, Object> fontSizeResult = setFontSize(fontSize);
-                result.success(fontSizeResult);
-                break;
+                return fontSizeResult;
                 
             case "setFontPath":
                 String fontPath = call.argument("fontPath");
                 Map<String, Object> fontPathResult = setFontPath(fontPath);
-                result.success(fontPathResult);
-                break;
+                return fontPathResult;
                 
             case "setDoubleHeight":
                 Boolean isAscDouble = call.argument("isAscDouble");
@@ -2134,8 +2590,7 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 if (isAscDouble == null) isAscDouble = true;
                 if (isLocalDouble == null) isLocalDouble = true;
                 Map<String, Object> doubleHeightResult = setDoubleHeight(isAscDouble, isLocalDouble);
-                result.success(doubleHeightResult);
-                break;
+                return doubleHeightResult;
                 
             case "setDoubleWidth":
                 Boolean isAscDoubleWidth = call.argument("isAscDouble");
@@ -2143,22 +2598,19 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 if (isAscDoubleWidth == null) isAscDoubleWidth = true;
                 if (isLocalDoubleWidth == null) isLocalDoubleWidth = true;
                 Map<String, Object> doubleWidthResult = setDoubleWidth(isAscDoubleWidth, isLocalDoubleWidth);
-                result.success(doubleWidthResult);
-                break;
+                return doubleWidthResult;
                 
             case "setLeftIndent":
                 Integer indent = call.argument("indent");
                 if (indent == null) indent = 0;
                 Map<String, Object> leftIndentResult = setLeftIndent(indent);
-                result.success(leftIndentResult);
-                break;
+                return leftIndentResult;
                 
             case "setInvert":
                 Boolean isInvert = call.argument("isInvert");
                 if (isInvert == null) isInvert = false;
                 Map<String, Object> invertResult = setInvert(isInvert);
-                result.success(invertResult);
-                break;
+                return invertResult;
                 
             case "setSpacing":
                 Integer wordSpace = call.argument("wordSpace");
@@ -2166,37 +2618,42 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 if (wordSpace == null) wordSpace = 0;
                 if (lineSpace == null) lineSpace = 0;
                 Map<String, Object> spacingResult = setSpacing(wordSpace.byteValue(), lineSpace.byteValue());
-                result.success(spacingResult);
-                break;
+                return spacingResult;
                 
             case "presetCutPaper":
                 Integer presetMode = call.argument("mode");
                 if (presetMode == null) presetMode = 0;
                 Map<String, Object> presetCutResult = presetCutPaper(presetMode);
-                result.success(presetCutResult);
-                break;
+                return presetCutResult;
                 
             case "getCutMode":
                 Map<String, Object> getCutModeResult = getCutMode();
-                result.success(getCutModeResult);
-                break;
+                return getCutModeResult;
                 
             case "getDotLine":
                 Map<String, Object> getDotLineResult = getDotLine();
-                result.success(getDotLineResult);
-                break;
+                return getDotLineResult;
                 
+            case "setPrintWidth":
+                Integer printWidth = call.argument("dots");
+                if (printWidth == null) {
+                    throw new IllegalArgumentException("dots is required");
+                }
+                printerSession.setDotWidth(printWidth);
+                Map<String, Object> printWidthResult = new HashMap<>();
+                printWidthResult.put("success", true);
+                printWidthResult.put("dots", printWidth);
+                return printWidthResult;
+
             case "getPrinterSize":
                 Map<String, Object> getPrinterSizeResult = getPrinterSize();
-                result.success(getPrinterSizeResult);
-                break;
+                return getPrinterSizeResult;
                 
             case "setPrinterSize":
                 Integer printerSize = call.argument("size");
                 if (printerSize == null) printerSize = 0;
                 Map<String, Object> setPrinterSizeResult = setPrinterSize(printerSize);
-                result.success(setPrinterSizeResult);
-                break;
+                return setPrinterSizeResult;
                 
             case "setColorGray":
                 Integer blackLevel = call.argument("blackLevel");
@@ -2204,89 +2661,99 @@ public class paxSDK implements FlutterPlugin, MethodCallHandler {
                 if (blackLevel == null) blackLevel = 0;
                 if (colorLevel == null) colorLevel = 0;
                 Map<String, Object> colorGrayResult = setColorGray(blackLevel, colorLevel);
-                result.success(colorGrayResult);
-                break;
+                return colorGrayResult;
                 
             case "enableLowPowerPrint":
                 Boolean enableLowPower = call.argument("enable");
                 if (enableLowPower == null) enableLowPower = false;
                 Map<String, Object> lowPowerResult = enableLowPowerPrint(enableLowPower);
-                result.success(lowPowerResult);
-                break;
+                return lowPowerResult;
                 
             case "isLowPowerPrintEnabled":
                 Map<String, Object> lowPowerStatusResult = isLowPowerPrintEnabled();
-                result.success(lowPowerStatusResult);
-                break;
+                return lowPowerStatusResult;
                 
             case "printBitmapWithMonoThreshold":
-                Object thresholdImageDataObj = call.argument("imageData");
-                List<Integer> thresholdImageData = null;
-                if (thresholdImageDataObj instanceof List) {
-                    thresholdImageData = (List<Integer>) thresholdImageDataObj;
-                } else if (thresholdImageDataObj instanceof byte[]) {
-                    byte[] byteArray = (byte[]) thresholdImageDataObj;
-                    thresholdImageData = new java.util.ArrayList<>();
-                    for (byte b : byteArray) {
-                        thresholdImageData.add((int) b & 0xFF);
-                    }
-                } else {
-                    result.error("invalid_argument", "imageData must be List<Integer> or byte[]", null);
-                    break;
-                }
+                Object thresholdImageData = call.argument("imageData");
                 Integer grayThreshold = call.argument("grayThreshold");
                 if (grayThreshold == null) grayThreshold = 128;
-                Map<String, Object> thresholdResult = printBitmapWithMonoThreshold(thresholdImageData, grayThreshold);
-                result.success(thresholdResult);
-                break;
+                String thresholdDither = call.argument("dither");
+                PrintResult thresholdResult = printBitmapWithMonoThreshold(thresholdImageData, grayThreshold,
+                        thresholdDither);
+                return thresholdResult;
                 
             case "printColorBitmap":
-                Object colorImageDataObj = call.argument("imageData");
-                List<Integer> colorImageData = null;
-                if (colorImageDataObj instanceof List) {
-                    colorImageData = (List<Integer>) colorImageDataObj;
-                } else if (colorImageDataObj instanceof byte[]) {
-                    byte[] byteArray = (byte[]) colorImageDataObj;
-                    colorImageData = new java.util.ArrayList<>();
-                    for (byte b : byteArray) {
-                        colorImageData.add((int) b & 0xFF);
-                    }
-                } else {
-                    result.error("invalid_argument", "imageData must be List<Integer> or byte[]", null);
-                    break;
-                }
+                Object colorImageData = call.argument("imageData");
                 Map<String, Object> colorBitmapResult = printColorBitmap(colorImageData);
-                result.success(colorBitmapResult);
-                break;
+                return colorBitmapResult;
                 
             case "printColorBitmapWithMonoThreshold":
-                List<Integer> colorThresholdImageData = call.argument("imageData");
+                Object colorThresholdImageData = call.argument("imageData");
                 Integer colorGrayThreshold = call.argument("grayThreshold");
                 if (colorGrayThreshold == null) colorGrayThreshold = 128;
                 Map<String, Object> colorThresholdResult = printColorBitmapWithMonoThreshold(colorThresholdImageData, colorGrayThreshold);
-                result.success(colorThresholdResult);
-                break;
+                return colorThresholdResult;
                 
             case "setAlignMode":
                 Integer alignMode = call.argument("alignMode");
                 if (alignMode == null) alignMode = 0;
                 Map<String, Object> alignModeResult = setAlignMode(alignMode.shortValue());
-                result.success(alignModeResult);
-                break;
+                return alignModeResult;
+                
+            case "getCapabilities":
+                return DeviceCapabilities.get(appContext).toMap();
+
+            case "executeBatch":
+                List<Map<String, Object>> batchEntries = call.argument("entries");
+                Boolean stopOnError = call.argument("stopOnError");
+                return commandBatch.execute(batchEntries, stopOnError != null && stopOnError);
+                
+            case "configurePrintQueue":
+                Integer queueCapacity = call.argument("capacity");
+                String overflow = call.argument("overflow");
+                if (queueCapacity == null) queueCapacity = 32;
+                PrintJobQueue.OverflowPolicy policy = "block".equals(overflow)
+                        ? PrintJobQueue.OverflowPolicy.BLOCK
+                        : PrintJobQueue.OverflowPolicy.REJECT;
+                printJobQueue.configure(queueCapacity, policy);
+                return printJobQueue.getStatus();
+                
+            case "getPrintQueueStatus":
+                return printJobQueue.getStatus();
+
+            case "getImageCacheStats":
+                Map<String, Object> cacheStats = rasterCache.getStats();
+                textRuns.putStats(cacheStats);
+                return cacheStats;
+
+            case "clearImageCache":
+                rasterCache.clear();
+                textRuns.clear();
+                Map<String, Object> clearedStats = rasterCache.getStats();
+                textRuns.putStats(clearedStats);
+                return clearedStats;
                 
             case "testNativeLibraryLoading":
                 Map<String, Object> nativeTestResult = testNativeLibraryLoading();
-                result.success(nativeTestResult);
-                break;
+                return nativeTestResult;
                 
             default:
-                result.notImplemented();
-                break;
+                return DeviceDispatcher.NOT_IMPLEMENTED;
         }
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        cardEventChannel.setStreamHandler(null);
+        cardEventStream.close();
+        printJobEventChannel.setStreamHandler(null);
+        printJobQueue.close();
+        dispatcher.executor(DeviceDispatcher.Lane.PRINTER).execute(imageJobs::clear);
+        dispatcher.executor(DeviceDispatcher.Lane.PRINTER).execute(rasterCache::clear);
+        dispatcher.executor(DeviceDispatcher.Lane.PRINTER).execute(textRuns::clear);
+        dispatcher.executor(DeviceDispatcher.Lane.PRINTER).execute(bitmapPool::clear);
+        dispatcher.executor(DeviceDispatcher.Lane.NFC).execute(piccSession::close);
+        dispatcher.shutdown();
     }
 }
\ No newline at end of file
@@ -0,0 +1,202 @@
+package com.example.pax_sdk_package;
+
+import android.util.Log;
+
+import io.flutter.plugin.common.EventChannel;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CardEventStream - pushes card-arrived and card-removed events to Dart.
+ *
+ * A single poller runs on the NFC lane while Dart is listening, or until the
+ * next card arrives after {@link #waitForCard()}. Starting it again while it is
+ * already running is a no-op, so repeated calls never leak threads. Each poll
+ * only detects the card; the card is read once, when a new UID appears.
+ */
+public class CardEventStream implements EventChannel.StreamHandler {
+    private static final String TAG = "PAX_SDK";
+    private static final long POLL_INTERVAL_MS = 50;
+
+    /**
+     * Detects and reads the card currently in the field
+     */
+    public interface CardReader {
+        /**
+         * Cheap presence check, run on every poll
+         *
+         * @return UID of the card in the field as hex, or null if no card is present
+         */
+        String detect() throws Exception;
+
+        /**
+         * Full read, run only when a new card arrives
+         *
+         * @return card details, or null if the card has left the field
+         */
+        CardResult readCard() throws Exception;
+    }
+
+    /**
+     * Card arrived or removed, sent on the card event stream
+     */
+    static final class CardEvent {
+        final String event;
+        final String uid;
+        final long timestamp;
+        final CardResult card;
+
+        CardEvent(String event, String uid, CardResult card) {
+            this.event = event;
+            this.uid = uid;
+            this.timestamp = System.currentTimeMillis();
+            this.card = card;
+        }
+    }
+
+    private final DeviceDispatcher dispatcher;
+    private final PiccSession piccSession;
+    private final CardReader cardReader;
+
+    private EventChannel.EventSink eventSink;
+    private ScheduledFuture<?> pollTask;
+    private boolean waitingForCard;
+    private String presentUid;
+
+    public CardEventStream(DeviceDispatcher dispatcher, PiccSession piccSession, CardReader cardReader) {
+        this.dispatcher = dispatcher;
+        this.piccSession = piccSession;
+        this.cardReader = cardReader;
+    }
+
+    @Override
+    public synchronized void onListen(Object arguments, EventChannel.EventSink events) {
+        Log.d(TAG, "Card event stream listening");
+        eventSink = events;
+        startPolling();
+    }
+
+    @Override
+    public synchronized void onCancel(Object arguments) {
+        Log.d(TAG, "Card event stream cancelled");
+        eventSink = null;
+        if (!waitingForCard) {
+            stopPolling();
+        }
+    }
+
+    /**
+     * Poll until the next card arrives, even if nobody is listening
+     */
+    public synchronized void waitForCard() {
+        Log.d(TAG, "=== WAITING FOR CARD ===");
+        waitingForCard = true;
+        startPolling();
+    }
+
+    /**
+     * Cancel a pending waitForCard. Polling continues only if Dart is still listening.
+     *
+     * @return true if polling stopped
+     */
+    public synchronized boolean cancelWait() {
+        if (waitingForCard) {
+            Log.d(TAG, "Waiting for card cancelled");
+            waitingForCard = false;
+        }
+        if (eventSink == null && pollTask != null) {
+            stopPolling();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stop polling and drop the listener
+     */
+    public synchronized void close() {
+        eventSink = null;
+        waitingForCard = false;
+        stopPolling();
+    }
+
+    private void startPolling() {
+        if (pollTask != null) {
+            return;
+        }
+
+        try {
+            piccSession.setPollerHold(true);
+            presentUid = null;
+            pollTask = dispatcher.executor(DeviceDispatcher.Lane.NFC)
+                    .scheduleWithFixedDelay(this::poll, 0, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Cannot start card polling, NFC lane is shut down");
+        }
+    }
+
+    private void stopPolling() {
+        if (pollTask == null) {
+            return;
+        }
+
+        pollTask.cancel(false);
+        pollTask = null;
+        piccSession.setPollerHold(false);
+        Log.d(TAG, "Card polling stopped");
+    }
+
+    private void poll() {
+        String uid;
+        CardResult card = null;
+        try {
+            uid = cardReader.detect();
+            if (uid != null && !uid.equals(presentUid)) {
+                card = cardReader.readCard();
+                if (card == null) {
+                    // Left the field between detect and read
+                    uid = null;
+                }
+            }
+        } catch (Exception e) {
+            Log.v(TAG, "Card poll failed: " + e.getMessage());
+            uid = null;
+        }
+
+        synchronized (this) {
+            if (pollTask == null) {
+                return;
+            }
+
+            if (presentUid != null && !presentUid.equals(uid)) {
+                Log.d(TAG, "Card removed: " + presentUid);
+                CardEvent event = new CardEvent("cardRemoved", presentUid, null);
+                presentUid = null;
+                emit(event);
+            }
+
+            if (card != null) {
+                presentUid = uid;
+                Log.d(TAG, "Card arrived: " + presentUid);
+                emit(new CardEvent("cardArrived", card.uidHex(), card));
+
+                if (waitingForCard) {
+                    waitingForCard = false;
+                    if (eventSink == null) {
+                        stopPolling();
+                    }
+                }
+            }
+        }
+    }
+
+    private void emit(CardEvent event) {
+        final EventChannel.EventSink sink = eventSink;
+        if (sink == null) {
+            return;
+        }
+        dispatcher.postToMain(() -> sink.success(event));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.pax_sdk_package;
+
+/**
+ * CardResult - typed result of a card detection.
+ *
+ * Written field by field by {@link PaxResultCodec} instead of being built up
+ * as nested maps. Hex strings and the parsed manufacturer block are derived
+ * from the raw bytes on the Dart side, so each byte array crosses the channel
+ * once.
+ */
+public final class CardResult {
+    /** keyIndex value when block 0 was read without authentication */
+    static final int NO_KEY = -1;
+
+    final boolean success;
+    final boolean cancelled;
+    final String error;
+
+    final byte[] uid;
+    final String cardInfo;
+    String cardType;
+    String manufacturer;
+
+    byte[] block0;
+    int keyIndex = NO_KEY;
+    String block0Error;
+    boolean authAttempted;
+    String authError;
+
+    private CardResult(boolean success, boolean cancelled, String error, byte[] uid, String cardInfo) {
+        this.success = success;
+        this.cancelled = cancelled;
+        this.error = error;
+        this.uid = uid;
+        this.cardInfo = cardInfo;
+    }
+
+    /**
+     * A detected card; type and manufacturer block details are filled in by the reader
+     */
+    static CardResult detected(byte[] uid, String cardInfo) {
+        return new CardResult(true, false, null, uid != null && uid.length > 0 ? uid : null, cardInfo);
+    }
+
+    /**
+     * A failed detection
+     */
+    static CardResult failure(String error) {
+        return new CardResult(false, false, error, null, null);
+    }
+
+    /**
+     * A detection cancelled with cancelDetection
+     */
+    static CardResult cancelledResult() {
+        return new CardResult(false, true, "Detection cancelled", null, null);
+    }
+
+    /**
+     * UID as a hex string, or an empty string when the card reported none
+     */
+    String uidHex() {
+        return uid != null ? hex(uid) : "";
+    }
+
+    /**
+     * Convert byte array to hex string
+     */
+    static String hex(byte[] bytes) {
+        if (bytes == null) return "null";
+        StringBuilder sb = new StringBuilder(bytes.length * 3);
+        for (byte b : bytes) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(String.format("%02X", b));
+        }
+        return sb.toString();
+    }
+}
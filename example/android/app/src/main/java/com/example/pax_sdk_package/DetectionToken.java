@@ -0,0 +1,118 @@
+package com.example.pax_sdk_package;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DetectionToken - cancellation handle for one in-flight card detection.
+ *
+ * The detection loop waits on the token between polls, so cancelling it wakes
+ * the loop immediately instead of after the current sleep.
+ */
+public class DetectionToken {
+    private final String id;
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+
+    private DetectionToken(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Cancel the detection
+     */
+    public void cancel() {
+        cancelled.countDown();
+    }
+
+    /**
+     * Check if the detection has been cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled.getCount() == 0;
+    }
+
+    /**
+     * Wait up to timeoutMs, returning early if cancelled
+     *
+     * @return true if the token was cancelled
+     */
+    public boolean await(long timeoutMs) throws InterruptedException {
+        return cancelled.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registry - tracks the tokens of detections that are queued or running
+     */
+    public static class Registry {
+        private final Map<String, DetectionToken> queued = new ConcurrentHashMap<>();
+        private final Map<String, DetectionToken> active = new ConcurrentHashMap<>();
+
+        /**
+         * Note a detection that has been submitted but not started, so a cancel
+         * that overtakes it on the way to the NFC lane still reaches it
+         */
+        public void enqueue(String id) {
+            queued.putIfAbsent(id, new DetectionToken(id));
+        }
+
+        /**
+         * Register a detection as it starts, generating an id when the caller didn't supply one
+         */
+        public DetectionToken register(String id) {
+            DetectionToken token = id != null ? queued.remove(id) : null;
+            if (token == null) {
+                token = new DetectionToken(id != null ? id : UUID.randomUUID().toString());
+            }
+            active.put(token.id, token);
+            return token;
+        }
+
+        /**
+         * Remove a finished detection
+         */
+        public void unregister(DetectionToken token) {
+            active.remove(token.id, token);
+        }
+
+        /**
+         * Cancel the queued or running detection with the given id. Ids of
+         * detections that already finished are ignored.
+         *
+         * @return true if a detection was cancelled
+         */
+        public boolean cancel(String id) {
+            DetectionToken token = active.get(id);
+            if (token == null) {
+                token = queued.get(id);
+            }
+            if (token == null) {
+                return false;
+            }
+            token.cancel();
+            return true;
+        }
+
+        /**
+         * Cancel every queued and running detection
+         *
+         * @return number of detections cancelled
+         */
+        public int cancelAll() {
+            List<DetectionToken> tokens = new ArrayList<>(active.values());
+            tokens.addAll(queued.values());
+            for (DetectionToken token : tokens) {
+                token.cancel();
+            }
+            return tokens.size();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.pax_sdk_package;
+
+import android.content.Context;
+import android.os.Build;
+import android.util.Log;
+
+import com.pax.dal.IDAL;
+import com.pax.dal.IDeviceInfo;
+import com.pax.neptunelite.api.NeptuneLiteUser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DeviceCapabilities - cached answer to "is this a PAX terminal, and what can it do".
+ *
+ * The probe loads the PAX SDK and DAL and asks the device which modules it
+ * supports. A successful probe is kept for the process lifetime so the card and
+ * printer paths never have to scan installed packages again. A failed probe is
+ * only kept for {@link #RETRY_AFTER_MS}, since the DAL service may simply not be
+ * up yet right after boot.
+ */
+public final class DeviceCapabilities {
+    private static final String TAG = "PAX_SDK";
+    private static final Object LOCK = new Object();
+    /** How long a failed probe is reused before the device is probed again */
+    static final long RETRY_AFTER_MS = 5000;
+
+    private static volatile DeviceCapabilities cached;
+
+    public final boolean paxSdkAvailable;
+    public final boolean piccSupported;
+    public final boolean printerSupported;
+    public final String failureReason;
+    public final long probeTimeMs;
+    /** System.nanoTime() when the probe finished */
+    private final long probedAtNanos = System.nanoTime();
+
+    private DeviceCapabilities(boolean paxSdkAvailable, boolean piccSupported, boolean printerSupported,
+                               String failureReason, long probeTimeMs) {
+        this.paxSdkAvailable = paxSdkAvailable;
+        this.piccSupported = piccSupported;
+        this.printerSupported = printerSupported;
+        this.failureReason = failureReason;
+        this.probeTimeMs = probeTimeMs;
+    }
+
+    /**
+     * Get the device capabilities, probing the device on first call and again
+     * once a failed probe is older than {@link #RETRY_AFTER_MS}
+     */
+    public static DeviceCapabilities get(Context context) {
+        DeviceCapabilities current = cached;
+        if (current == null || current.isStale()) {
+            synchronized (LOCK) {
+                current = cached;
+                if (current == null || current.isStale()) {
+                    current = probe(context);
+                    cached = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private boolean isStale() {
+        return !paxSdkAvailable && System.nanoTime() - probedAtNanos >= RETRY_AFTER_MS * 1000000L;
+    }
+
+    /**
+     * Convert to a map for the method channel
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("paxSdkAvailable", paxSdkAvailable);
+        result.put("piccSupported", piccSupported);
+        result.put("printerSupported", printerSupported);
+        result.put("model", Build.MODEL);
+        result.put("manufacturer", Build.MANUFACTURER);
+        result.put("probeTimeMs", probeTimeMs);
+        if (failureReason != null) {
+            result.put("error", failureReason);
+        }
+        return result;
+    }
+
+    private static DeviceCapabilities probe(Context context) {
+        long startTime = System.currentTimeMillis();
+        Log.d(TAG, "Probing PAX device capabilities...");
+
+        if (context == null) {
+            return new DeviceCapabilities(false, false, false,
+                    "Context is null - cannot probe device", 0);
+        }
+
+        IDAL dal;
+        try {
+            PaxSdkLoader.ensureLoaded(context);
+            dal = NeptuneLiteUser.getInstance().getDal(context);
+        } catch (UnsatisfiedLinkError e) {
+            Log.w(TAG, "PAX SDK not available - missing native libraries: " + e.getMessage());
+            return new DeviceCapabilities(false, false, false,
+                    "LOAD DAL ERR: Missing native libraries - " + e.getMessage(),
+                    System.currentTimeMillis() - startTime);
+        } catch (Throwable t) {
+            Log.w(TAG, "PAX SDK not available: " + t.getMessage());
+            return new DeviceCapabilities(false, false, false,
+                    "LOAD DAL ERR: " + t.getMessage(),
+                    System.currentTimeMillis() - startTime);
+        }
+
+        if (dal == null) {
+            Log.w(TAG, "PAX SDK not available - DAL is null");
+            return new DeviceCapabilities(false, false, false,
+                    "Failed to get DAL instance - DAL is null",
+                    System.currentTimeMillis() - startTime);
+        }
+
+        boolean picc = true;
+        boolean printer = true;
+        try {
+            IDeviceInfo deviceInfo = dal.getDeviceInfo();
+            if (deviceInfo != null) {
+                // Only trust an explicit NO; older firmware reports UNKNOWN for supported modules
+                picc = deviceInfo.getModuleSupported(IDeviceInfo.MODULE_PICC) != IDeviceInfo.ESupported.NO;
+                printer = deviceInfo.getModuleSupported(IDeviceInfo.MODULE_PRINTER) != IDeviceInfo.ESupported.NO;
+            }
+        } catch (Throwable t) {
+            Log.v(TAG, "Module support query not available: " + t.getMessage());
+        }
+
+        long probeTime = System.currentTimeMillis() - startTime;
+        Log.d(TAG, "Capabilities: picc=" + picc + ", printer=" + printer + " (" + probeTime + " ms)");
+        return new DeviceCapabilities(true, picc, printer, null, probeTime);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.pax_sdk_package;
+
+import android.graphics.Bitmap;
+
+import java.util.Arrays;
+
+/**
+ * Dither - error-diffusion conversion of a bitmap to a packed 1-bit raster.
+ *
+ * Runs in one top-to-bottom pass. Pixels are read a row at a time with
+ * getPixels, and the quantization error for the rows below is carried in three
+ * short arrays that are rotated as the pass moves down, so memory use depends
+ * on the width only.
+ */
+public final class Dither {
+    private static final int THRESHOLD = 128;
+    /** Columns of padding on each side so kernels never index out of bounds */
+    private static final int PAD = 2;
+
+    /**
+     * Diffusion kernels. Each entry is {dx, dy, weight}; weights are divided by the divisor.
+     */
+    public enum Kernel {
+        FLOYD_STEINBERG(16, new int[][]{
+                {1, 0, 7},
+                {-1, 1, 3}, {0, 1, 5}, {1, 1, 1}}),
+        // Atkinson diffuses only 6/8 of the error, which keeps highlights clean
+        ATKINSON(8, new int[][]{
+                {1, 0, 1}, {2, 0, 1},
+                {-1, 1, 1}, {0, 1, 1}, {1, 1, 1},
+                {0, 2, 1}}),
+        STUCKI(42, new int[][]{
+                {1, 0, 8}, {2, 0, 4},
+                {-2, 1, 2}, {-1, 1, 4}, {0, 1, 8}, {1, 1, 4}, {2, 1, 2},
+                {-2, 2, 1}, {-1, 2, 2}, {0, 2, 4}, {1, 2, 2}, {2, 2, 1}});
+
+        final int divisor;
+        final int[][] taps;
+
+        Kernel(int divisor, int[][] taps) {
+            this.divisor = divisor;
+            this.taps = taps;
+        }
+
+        /**
+         * Look up a kernel by its option name, e.g. "floyd_steinberg"
+         */
+        public static Kernel fromName(String name) {
+            for (Kernel kernel : values()) {
+                if (kernel.name().equalsIgnoreCase(name)) {
+                    return kernel;
+                }
+            }
+            throw new IllegalArgumentException("Unknown dither kernel: " + name);
+        }
+    }
+
+    private final int[][] taps;
+    private final int divisor;
+    private final int width;
+    private final int[] row;
+    private final short[][] errors;
+
+    /**
+     * Start a dither over an image of the given width. Bands passed to
+     * {@link #next(Bitmap)} carry the error over, so seams between them don't show.
+     */
+    public Dither(Kernel kernel, int width) {
+        this.taps = kernel.taps;
+        this.divisor = kernel.divisor;
+        this.width = width;
+        this.row = new int[width];
+        this.errors = new short[3][width + 2 * PAD];
+    }
+
+    /**
+     * Dither a whole bitmap to a packed raster
+     */
+    public static MonoRaster toRaster(Bitmap bitmap, Kernel kernel) {
+        return new Dither(kernel, bitmap.getWidth()).next(bitmap);
+    }
+
+    /**
+     * Dither the next band of rows of the image
+     */
+    public MonoRaster next(Bitmap band) {
+        if (band.getWidth() != width) {
+            throw new IllegalArgumentException("Band width " + band.getWidth() + " does not match " + width);
+        }
+        int height = band.getHeight();
+        MonoRaster raster = new MonoRaster(width, height);
+
+        for (int y = 0; y < height; y++) {
+            band.getPixels(row, 0, width, 0, y, width, 1);
+            short[] current = errors[0];
+            int rowStart = y * raster.stride;
+            int bits = 0;
+
+            for (int x = 0; x < width; x++) {
+                int value = MonoRaster.luma(row[x]) + current[x + PAD];
+                int error;
+                bits <<= 1;
+                if (value < THRESHOLD) {
+                    bits |= 1;
+                    error = value;
+                } else {
+                    error = value - 255;
+                }
+
+                if (error != 0) {
+                    for (int[] tap : taps) {
+                        short[] target = errors[tap[1]];
+                        int index = x + tap[0] + PAD;
+                        target[index] = (short) (target[index] + error * tap[2] / divisor);
+                    }
+                }
+
+                if ((x & 7) == 7) {
+                    raster.data[rowStart + (x >> 3)] = (byte) bits;
+                    bits = 0;
+                }
+            }
+            if ((width & 7) != 0) {
+                raster.data[rowStart + (width >> 3)] = (byte) (bits << (8 - (width & 7)));
+            }
+
+            // Move the error rows up one line and clear the one that comes into view
+            errors[0] = errors[1];
+            errors[1] = errors[2];
+            errors[2] = current;
+            Arrays.fill(current, (short) 0);
+        }
+        return raster;
+    }
+}
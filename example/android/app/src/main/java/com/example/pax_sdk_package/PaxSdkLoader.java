@@ -0,0 +1,117 @@
+package com.example.pax_sdk_package;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+
+import dalvik.system.DexClassLoader;
+
+/**
+ * PaxSdkLoader - one-time PAX SDK initialization for the process lifetime.
+ *
+ * The native library scan and dex loading run once under a lock. The outcome,
+ * including the failure reason when it fails, is published through a volatile
+ * field so every later call is a single read with no filesystem access.
+ */
+public final class PaxSdkLoader {
+    private static final String TAG = "PAX_SDK";
+    private static final Object LOCK = new Object();
+
+    private static volatile LoadState state;
+
+    private PaxSdkLoader() {
+    }
+
+    /**
+     * Outcome of the one-time initialization
+     */
+    private static final class LoadState {
+        /** Null when initialization succeeded */
+        final String failureReason;
+
+        LoadState(String failureReason) {
+            this.failureReason = failureReason;
+        }
+    }
+
+    /**
+     * Initialize PAX SDK components on first call, rethrowing the cached failure afterwards
+     */
+    public static void ensureLoaded(Context context) throws Exception {
+        LoadState current = state;
+        if (current == null) {
+            synchronized (LOCK) {
+                current = state;
+                if (current == null) {
+                    current = load(context);
+                    state = current;
+                }
+            }
+        }
+
+        if (current.failureReason != null) {
+            throw new IllegalStateException("PAX SDK initialization failed: " + current.failureReason);
+        }
+    }
+
+    /**
+     * Check if initialization has run and succeeded
+     */
+    public static boolean isLoaded() {
+        LoadState current = state;
+        return current != null && current.failureReason == null;
+    }
+
+    /**
+     * Get the cached failure reason, or null if not initialized or initialized successfully
+     */
+    public static String getFailureReason() {
+        LoadState current = state;
+        return current != null ? current.failureReason : null;
+    }
+
+    private static LoadState load(Context context) {
+        Log.d(TAG, "Initializing PAX SDK...");
+
+        try {
+            // Check if native libraries are available
+            String libraryPath = context.getApplicationInfo().nativeLibraryDir;
+            Log.d(TAG, "Native library path: " + libraryPath);
+
+            // List available libraries for debugging
+            File libDir = new File(libraryPath);
+            if (libDir.exists() && libDir.isDirectory()) {
+                File[] libs = libDir.listFiles((dir, name) -> name.endsWith(".so"));
+                if (libs != null) {
+                    Log.d(TAG, "Available native libraries:");
+                    for (File lib : libs) {
+                        Log.d(TAG, "  - " + lib.getName());
+                    }
+                }
+            }
+
+            // Load dex file if it exists
+            File dexFile = new File(context.getFilesDir(), "nepcore.dex");
+            if (dexFile.exists()) {
+                File optimizedDir = context.getDir("dex_opt", Context.MODE_PRIVATE);
+                new DexClassLoader(
+                        dexFile.getAbsolutePath(),
+                        optimizedDir.getAbsolutePath(),
+                        null, // Don't pass nativeLibsDir to avoid library conflicts
+                        context.getClassLoader()
+                );
+                Log.d(TAG, "DEX file loaded successfully");
+            } else {
+                Log.w(TAG, "DEX file not found, continuing without dynamic loading");
+            }
+
+            Log.d(TAG, "PAX SDK initialized successfully");
+            return new LoadState(null);
+        } catch (Exception e) {
+            Log.e(TAG, "Error initializing PAX SDK: " + e.getMessage(), e);
+            String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return new LoadState(reason);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.pax_sdk_package;
+
+import android.util.Log;
+
+import com.pax.dal.IDAL;
+import com.pax.dal.IPicc;
+import com.pax.dal.entity.EPiccType;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PiccSession - shared, long-lived handle on the contactless reader.
+ *
+ * Opening the RF field is the slowest part of a tap, so the reader is opened
+ * once and shared by every NFC call. When the last user releases it the reader
+ * stays open for an idle timeout and is then closed on the NFC lane. While the
+ * app is in a card-accepting state, or the card event poller holds it, the
+ * reader is never closed for idleness.
+ */
+public class PiccSession {
+    private static final String TAG = "PAX_SDK";
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = 10000;
+
+    private final ScheduledExecutorService scheduler;
+    private IPicc picc;
+    private boolean open;
+    private int users;
+    private boolean cardAccepting;
+    private boolean pollerHold;
+    private long idleTimeoutMs = DEFAULT_IDLE_TIMEOUT_MS;
+    private ScheduledFuture<?> pendingClose;
+
+    /**
+     * @param scheduler executor used for the idle close, normally the NFC lane
+     */
+    public PiccSession(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Get the open reader, opening it if needed. Every acquire must be paired with a release.
+     */
+    public synchronized IPicc acquire(IDAL dal) throws Exception {
+        cancelPendingClose();
+
+        if (!open) {
+            Log.d(TAG, "Getting PICC instance...");
+            picc = dal.getPicc(EPiccType.INTERNAL);
+            if (picc == null) {
+                throw new IllegalStateException("Failed to get PICC instance");
+            }
+            picc.open();
+            open = true;
+            Log.d(TAG, "PICC opened successfully");
+        }
+
+        users++;
+        return picc;
+    }
+
+    /**
+     * Release the reader, scheduling an idle close once nobody is using it
+     */
+    public synchronized void release() {
+        if (users > 0) {
+            users--;
+        }
+        scheduleIdleClose();
+    }
+
+    /**
+     * Release the reader after a device error, closing it so the next acquire reopens it
+     */
+    public synchronized void invalidate() {
+        if (users > 0) {
+            users--;
+        }
+        Log.d(TAG, "PICC session invalidated after error");
+        closeNow();
+    }
+
+    /**
+     * Keep the reader open while the app is waiting for cards
+     */
+    public synchronized void setCardAccepting(boolean accepting) {
+        cardAccepting = accepting;
+        onKeepOpenChanged();
+    }
+
+    /**
+     * Keep the reader open while the card event poller runs. Separate from the
+     * app's setCardAccepting so neither overrides the other.
+     */
+    public synchronized void setPollerHold(boolean hold) {
+        pollerHold = hold;
+        onKeepOpenChanged();
+    }
+
+    /**
+     * Set how long the reader stays open after its last use. Zero closes it immediately.
+     */
+    public synchronized void setIdleTimeout(long timeoutMs) {
+        idleTimeoutMs = Math.max(0, timeoutMs);
+        if (pendingClose != null) {
+            scheduleIdleClose();
+        }
+    }
+
+    /**
+     * Check if the reader is currently open
+     */
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Close the reader immediately
+     */
+    public synchronized void close() {
+        closeNow();
+    }
+
+    private void scheduleIdleClose() {
+        cancelPendingClose();
+        if (!open || users > 0 || keepOpen()) {
+            return;
+        }
+
+        if (idleTimeoutMs == 0) {
+            closeNow();
+            return;
+        }
+
+        try {
+            pendingClose = scheduler.schedule(this::closeIfIdle, idleTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Lane already shut down; nothing will reuse the reader
+            closeNow();
+        }
+    }
+
+    private synchronized void closeIfIdle() {
+        pendingClose = null;
+        if (users == 0 && !keepOpen()) {
+            Log.d(TAG, "PICC idle for " + idleTimeoutMs + " ms, closing");
+            closeNow();
+        }
+    }
+
+    private boolean keepOpen() {
+        return cardAccepting || pollerHold;
+    }
+
+    private void onKeepOpenChanged() {
+        if (keepOpen()) {
+            cancelPendingClose();
+        } else {
+            scheduleIdleClose();
+        }
+    }
+
+    private void cancelPendingClose() {
+        if (pendingClose != null) {
+            pendingClose.cancel(false);
+            pendingClose = null;
+        }
+    }
+
+    private void closeNow() {
+        cancelPendingClose();
+        if (open && picc != null) {
+            try {
+                picc.close();
+                Log.d(TAG, "PICC closed successfully");
+            } catch (Exception e) {
+                Log.w(TAG, "Error closing PICC: " + e.getMessage());
+            }
+        }
+        open = false;
+    }
+}
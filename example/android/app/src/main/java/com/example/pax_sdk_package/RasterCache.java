@@ -0,0 +1,179 @@
+package com.example.pax_sdk_package;
+
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+/**
+ * RasterCache - print-ready images keyed by the content of their encoded bytes.
+ *
+ * A logo printed on every receipt is decoded and converted once; later prints
+ * of the same bytes with the same options append the cached raster or bitmap
+ * directly. Entries are evicted least recently used first once the cache
+ * holds more than its byte budget.
+ */
+public class RasterCache {
+    private static final String TAG = "PAX_SDK";
+
+    /** Default byte budget for cached images */
+    static final int DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+    private final BitmapPool pool;
+    private final int maxBytes;
+    private final LinkedHashMap<Key, PreparedImage> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public RasterCache(BitmapPool pool) {
+        this(pool, DEFAULT_MAX_BYTES);
+    }
+
+    public RasterCache(BitmapPool pool, int maxBytes) {
+        this.pool = pool;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Identity of an encoded image and the conversion applied to it.
+     *
+     * Two independent checksums and the length make an accidental collision
+     * between different images practically impossible.
+     */
+    public static final class Key {
+        private final long crc;
+        private final long adler;
+        private final int length;
+        private final int width;
+        private final String conversion;
+
+        private Key(long crc, long adler, int length, int width, String conversion) {
+            this.crc = crc;
+            this.adler = adler;
+            this.length = length;
+            this.width = width;
+            this.conversion = conversion;
+        }
+
+        /**
+         * Key for image bytes printed at width dots with the given print options
+         */
+        public static Key of(byte[] data, int offset, int length, int width, Map<String, Object> options) {
+            CRC32 crc = new CRC32();
+            crc.update(data, offset, length);
+            Adler32 adler = new Adler32();
+            adler.update(data, offset, length);
+            return new Key(crc.getValue(), adler.getValue(), length, width, conversionOf(options));
+        }
+
+        private static String conversionOf(Map<String, Object> options) {
+            if (options.get("dither") != null) {
+                return "dither:" + ((String) options.get("dither")).toLowerCase();
+            }
+            if (options.containsKey("threshold")) {
+                return "threshold:" + options.get("threshold") + ":" + options.get("contrast");
+            }
+            if (options.containsKey("grayThreshold")) {
+                return "gray:" + options.get("grayThreshold");
+            }
+            return "plain";
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return crc == key.crc && adler == key.adler && length == key.length
+                    && width == key.width && conversion.equals(key.conversion);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (crc ^ (crc >>> 32));
+            result = 31 * result + (int) adler;
+            result = 31 * result + length;
+            result = 31 * result + width;
+            return 31 * result + conversion.hashCode();
+        }
+    }
+
+    /**
+     * Look up a prepared image, counting the hit or miss
+     */
+    public synchronized PreparedImage get(Key key) {
+        PreparedImage image = entries.get(key);
+        if (image != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return image;
+    }
+
+    /**
+     * Cache a prepared image. The cache takes ownership of it.
+     *
+     * @return false if the image is larger than the whole budget and was not cached
+     */
+    public synchronized boolean put(Key key, PreparedImage image) {
+        int size = image.byteCount();
+        if (size > maxBytes) {
+            return false;
+        }
+
+        PreparedImage previous = entries.put(key, image);
+        if (previous != null) {
+            bytes -= previous.byteCount();
+            previous.release(pool);
+        }
+        bytes += size;
+
+        Iterator<Map.Entry<Key, PreparedImage>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            PreparedImage evicted = eldest.next().getValue();
+            eldest.remove();
+            bytes -= evicted.byteCount();
+            evicted.release(pool);
+            evictions++;
+        }
+        return true;
+    }
+
+    /**
+     * Drop every entry
+     */
+    public synchronized void clear() {
+        for (PreparedImage image : entries.values()) {
+            image.release(pool);
+        }
+        Log.d(TAG, "Raster cache cleared, " + entries.size() + " entries");
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Hit, miss and size counters
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("hits", hits);
+        result.put("misses", misses);
+        result.put("evictions", evictions);
+        result.put("entries", entries.size());
+        result.put("bytes", bytes);
+        result.put("maxBytes", maxBytes);
+        return result;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.pax_sdk_package;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TextRunCache - lines of text shaped and rendered once into alpha masks.
+ *
+ * Arabic shaping and glyph rasterization dominate the cost of the text
+ * renderer, and receipts repeat the same product names and headers. Each
+ * distinct line is drawn once into an ALPHA_8 mask; later uses of the line
+ * blit the mask onto the receipt canvas. Masks are evicted least recently
+ * used first once they hold more than the byte budget.
+ */
+public class TextRunCache {
+    /** Default byte budget for cached masks */
+    static final int DEFAULT_MAX_BYTES = 1024 * 1024;
+    /** Widest mask rendered, to keep a runaway line from allocating a huge bitmap */
+    private static final int MAX_RUN_WIDTH = 4096;
+
+    private final int maxBytes;
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.SUBPIXEL_TEXT_FLAG);
+    private final LinkedHashMap<Key, Run> runs = new LinkedHashMap<>(64, 0.75f, true);
+    private int bytes;
+    private long hits;
+    private long misses;
+
+    public TextRunCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public TextRunCache(int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * A rendered line: an alpha mask and where its baseline sits
+     */
+    public static final class Run {
+        public final Bitmap mask;
+        /** Rows from the top of the mask to the baseline */
+        public final int baseline;
+        /** False for a run too big for the budget, which the caller owns */
+        private boolean cached;
+
+        Run(Bitmap mask, int baseline) {
+            this.mask = mask;
+            this.baseline = baseline;
+        }
+
+        public int width() {
+            return mask.getWidth();
+        }
+    }
+
+    private static final class Key {
+        private final String text;
+        private final float textSize;
+        private final Typeface typeface;
+
+        Key(String text, float textSize, Typeface typeface) {
+            this.text = text;
+            this.textSize = textSize;
+            this.typeface = typeface;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return textSize == key.textSize && text.equals(key.text)
+                    && (typeface == null ? key.typeface == null : typeface.equals(key.typeface));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = text.hashCode();
+            result = 31 * result + Float.floatToIntBits(textSize);
+            return 31 * result + (typeface != null ? typeface.hashCode() : 0);
+        }
+    }
+
+    /**
+     * Get the rendered mask for a line, shaping and drawing it on a miss.
+     * The mask is only valid until the next call. A line whose mask alone is
+     * over the byte budget is rendered but not kept; pass every run to
+     * {@link #release(Run)} once drawn so such masks are recycled.
+     *
+     * @return the run, or null if the line draws nothing
+     */
+    public synchronized Run run(String text, float textSize, Typeface typeface) {
+        Key key = new Key(text, textSize, typeface);
+        Run run = runs.get(key);
+        if (run != null) {
+            hits++;
+            return run;
+        }
+        misses++;
+
+        run = render(text, textSize, typeface);
+        if (run == null) {
+            return null;
+        }
+        int size = run.mask.getAllocationByteCount();
+        if (size > maxBytes) {
+            return run;
+        }
+
+        run.cached = true;
+        runs.put(key, run);
+        bytes += size;
+        Iterator<Run> eldest = runs.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Run evicted = eldest.next();
+            if (evicted == run) {
+                break;
+            }
+            eldest.remove();
+            bytes -= evicted.mask.getAllocationByteCount();
+            evicted.mask.recycle();
+        }
+        return run;
+    }
+
+    /**
+     * Done drawing a run; recycles its mask if the cache did not keep it
+     */
+    public void release(Run run) {
+        if (run != null && !run.cached) {
+            run.mask.recycle();
+        }
+    }
+
+    /**
+     * Drop every cached mask
+     */
+    public synchronized void clear() {
+        for (Run run : runs.values()) {
+            run.mask.recycle();
+        }
+        runs.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Add hit, miss and size counters to a stats map
+     */
+    public synchronized void putStats(Map<String, Object> stats) {
+        stats.put("textRunHits", hits);
+        stats.put("textRunMisses", misses);
+        stats.put("textRunEntries", runs.size());
+        stats.put("textRunBytes", bytes);
+    }
+
+    private Run render(String text, float textSize, Typeface typeface) {
+        if (text.isEmpty()) {
+            return null;
+        }
+        paint.setTextSize(textSize);
+        paint.setTypeface(typeface);
+
+        int width = Math.min(MAX_RUN_WIDTH, (int) Math.ceil(paint.measureText(text)));
+        Paint.FontMetricsInt metrics = paint.getFontMetricsInt();
+        int height = metrics.descent - metrics.ascent;
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+
+        Bitmap mask = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+        new Canvas(mask).drawText(text, 0, -metrics.ascent, paint);
+        return new Run(mask, -metrics.ascent);
+    }
+}
@@ -1,14 +1,44 @@
+import 'dart:async';
+import 'dart:typed_data';
+
+import 'package:flutter/foundation.dart' show ReadBuffer;
 import 'package:flutter/services.dart';
 
 class PaxSdk {
-  static const MethodChannel _channel = MethodChannel('pax_sdk');
+  static const MethodCodec _codec = StandardMethodCodec(PaxResultCodec());
+  static const MethodChannel _channel = MethodChannel('pax_sdk', _codec);
+  static const EventChannel _cardEventChannel =
+      EventChannel('pax_sdk/cards', _codec);
+  static const EventChannel _printJobEventChannel =
+      EventChannel('pax_sdk/print_jobs', _codec);
+
+  static Stream<Map<String, dynamic>>? _cardEvents;
+  static Stream<Map<String, dynamic>>? _printJobEvents;
+  static StreamSubscription<Map<String, dynamic>>? _printJobSubscription;
+  static final Map<int, Completer<Map<String, dynamic>>> _printJobCompleters =
+      {};
+  static final Map<int, Map<String, dynamic>> _finishedPrintJobs = {};
+  static const int _maxFinishedPrintJobs = 64;
 
   // ============ NFC METHODS ============
 
   /// Detect and identify NFC card
-  static Future<Map<String, dynamic>> detectCard() async {
+  ///
+  /// Waits up to [timeoutMs] for a card, polling every [pollIntervalMs] at
+  /// first and backing off while no card is present. Pass a [token] to be able
+  /// to cancel this detection with [cancelDetection]; a cancelled detection
+  /// completes with `cancelled: true`.
+  static Future<Map<String, dynamic>> detectCard({
+    int timeoutMs = 5000,
+    int pollIntervalMs = 20,
+    String? token,
+  }) async {
     try {
-      final result = await _channel.invokeMethod('detectCard');
+      final result = await _channel.invokeMethod('detectCard', {
+        'timeoutMs': timeoutMs,
+        'pollIntervalMs': pollIntervalMs,
+        if (token != null) 'token': token,
+      });
       return Map<String, dynamic>.from(result);
     } on PlatformException catch (e) {
       return {
@@ -38,7 +68,20 @@ class PaxSdk {
     }
   }
 
+  /// Stream of card events while subscribed
+  ///
+  /// Each event has an `event` key of `cardArrived` or `cardRemoved` and the
+  /// card `uid`. Arrival events also carry `cardData` and `manufacturerData`
+  /// in the same shape as [detectCard].
+  static Stream<Map<String, dynamic>> get cardEvents {
+    return _cardEvents ??= _cardEventChannel
+        .receiveBroadcastStream()
+        .map((event) => Map<String, dynamic>.from(event));
+  }
+
   /// Wait for card and process when detected
+  ///
+  /// The detected card is delivered on [cardEvents].
   static Future<String> waitForCard() async {
     try {
       final result = await _channel.invokeMethod('waitForCard');
@@ -62,6 +105,76 @@ class PaxSdk {
     }
   }
 
+  /// Cancel in-flight card detection and release the NFC reader
+  ///
+  /// Cancels the detection started with [token], or every running detection
+  /// and any pending [waitForCard] when no token is given.
+  static Future<Map<String, dynamic>> cancelDetection({String? token}) async {
+    try {
+      final result = await _channel.invokeMethod('cancelDetection', {
+        if (token != null) 'token': token,
+      });
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
+  /// Keep the NFC reader open while the app is accepting cards
+  static Future<bool> setCardAccepting(bool accepting) async {
+    try {
+      final result = await _channel.invokeMethod('setCardAccepting', {
+        'accepting': accepting,
+      });
+      return result as bool;
+    } on PlatformException catch (e) {
+      print('Platform error setting card accepting state: ${e.message}');
+      return false;
+    } catch (e) {
+      print('Error setting card accepting state: $e');
+      return false;
+    }
+  }
+
+  /// Set how long the NFC reader stays open after its last use
+  static Future<bool> setPiccIdleTimeout(int timeoutMs) async {
+    try {
+      final result = await _channel.invokeMethod('setPiccIdleTimeout', {
+        'timeoutMs': timeoutMs,
+      });
+      return result as bool;
+    } on PlatformException catch (e) {
+      print('Platform error setting NFC idle timeout: ${e.message}');
+      return false;
+    } catch (e) {
+      print('Error setting NFC idle timeout: $e');
+      return false;
+    }
+  }
+
+  /// Close the NFC reader immediately
+  static Future<bool> closePicc() async {
+    try {
+      final result = await _channel.invokeMethod('closePicc');
+      return result as bool;
+    } on PlatformException catch (e) {
+      print('Platform error closing NFC reader: ${e.message}');
+      return false;
+    } catch (e) {
+      print('Error closing NFC reader: $e');
+      return false;
+    }
+  }
+
   // ============ PRINTER METHODS ============
 
   /// Initialize printer
@@ -110,8 +223,251 @@ class PaxSdk {
   }) async {
     try {
       final result = await _channel.invokeMethod('printImage', {
-        'imageData': imageData,
+        'imageData': _imageBytes(imageData),
+        'options': options ?? {},
+      });
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
+  /// Start a chunked image upload
+  ///
+  /// Use `format: 'encoded'` with the byte length of an encoded image, or
+  /// `format: 'raster'` with the row [width] in dots to stream packed 1-bit
+  /// rows (MSB first, 1 = black) that print while they arrive. While a raster
+  /// job is open, other printer calls fail until it is committed or aborted.
+  static Future<Map<String, dynamic>> beginImageJob({
+    String format = 'encoded',
+    int totalBytes = 0,
+    int width = 0,
+  }) {
+    return _invokeImageJob('beginImageJob', {
+      'format': format,
+      'totalBytes': totalBytes,
+      'width': width,
+    });
+  }
+
+  /// Send the next chunk of an image job
+  static Future<Map<String, dynamic>> appendImageChunk(
+      int jobId, List<int> data) {
+    return _invokeImageJob('appendImageChunk', {
+      'jobId': jobId,
+      'data': _imageBytes(data),
+    });
+  }
+
+  /// Finish an image job and print it
+  static Future<Map<String, dynamic>> commitImageJob(
+    int jobId, {
+    Map<String, dynamic>? options,
+  }) {
+    return _invokeImageJob('commitImageJob', {
+      'jobId': jobId,
+      'options': options ?? {},
+    });
+  }
+
+  /// Drop an unfinished image job and free its buffers
+  static Future<Map<String, dynamic>> abortImageJob(int jobId) {
+    return _invokeImageJob('abortImageJob', {'jobId': jobId});
+  }
+
+  /// Print an encoded image by uploading it in chunks of [chunkSize] bytes
+  static Future<Map<String, dynamic>> printImageInChunks(
+    List<int> imageData, {
+    int chunkSize = 64 * 1024,
+    Map<String, dynamic>? options,
+  }) async {
+    final bytes = _imageBytes(imageData);
+    final begin = await beginImageJob(totalBytes: bytes.length);
+    if (begin['success'] != true) {
+      return begin;
+    }
+
+    final jobId = begin['jobId'] as int;
+    for (var offset = 0; offset < bytes.length; offset += chunkSize) {
+      final end =
+          offset + chunkSize < bytes.length ? offset + chunkSize : bytes.length;
+      final chunk = await appendImageChunk(
+          jobId, Uint8List.sublistView(bytes, offset, end));
+      if (chunk['success'] != true) {
+        await abortImageJob(jobId);
+        return chunk;
+      }
+    }
+    return commitImageJob(jobId, options: options);
+  }
+
+  static Future<Map<String, dynamic>> _invokeImageJob(
+      String method, Map<String, dynamic> arguments) async {
+    try {
+      final result = await _channel.invokeMethod(method, arguments);
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
+  /// Run several plugin methods in one platform-channel call
+  ///
+  /// Each entry is `{'method': name, 'args': {...}}`. The result holds one
+  /// entry per method that ran, in order, under `results`. With [stopOnError]
+  /// the batch stops at the first failing method.
+  static Future<Map<String, dynamic>> executeBatch(
+    List<Map<String, dynamic>> entries, {
+    bool stopOnError = false,
+  }) async {
+    try {
+      final result = await _channel.invokeMethod('executeBatch', {
+        'entries': entries.map(_encodeBatchEntry).toList(),
+        'stopOnError': stopOnError,
+      });
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
+  static Map<String, dynamic> _encodeBatchEntry(Map<String, dynamic> entry) {
+    final args = entry['args'];
+    if (args is Map<String, dynamic>) {
+      return {...entry, 'args': _encodeElement(args)};
+    }
+    return entry;
+  }
+
+  /// Image bytes as a Uint8List, which reaches Android as a byte[] without boxing
+  static Uint8List _imageBytes(List<int> imageData) {
+    return imageData is Uint8List ? imageData : Uint8List.fromList(imageData);
+  }
+
+  static Map<String, dynamic> _encodeElement(Map<String, dynamic> element) {
+    final imageData = element['imageData'];
+    if (imageData is List<int> && imageData is! Uint8List) {
+      return {...element, 'imageData': Uint8List.fromList(imageData)};
+    }
+    return element;
+  }
+
+  /// Print a receipt made of several elements with a single print pass
+  ///
+  /// Each element is a map with a `type` of `text` (`text`, `options`),
+  /// `image` (`imageData`, `options`), `asset` (`id` of an asset from
+  /// [registerPrintAsset]), `feed` (`pixels`) or `cut` (`mode`).
+  static Future<Map<String, dynamic>> printDocument(
+    List<Map<String, dynamic>> elements,
+  ) async {
+    try {
+      final result = await _channel.invokeMethod('printDocument', {
+        'elements': elements.map(_encodeElement).toList(),
+      });
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
+  /// Register an image or a text block once so it can be printed by [id]
+  ///
+  /// Pass either [imageData] (with the `dither` or `threshold` options of
+  /// [printImage]) or [text] (with `fontSize` and `alignment`). The asset is
+  /// converted to a 1-bit raster once; with [persist] it is also saved on the
+  /// device and survives app restarts.
+  static Future<Map<String, dynamic>> registerPrintAsset(
+    String id, {
+    List<int>? imageData,
+    String? text,
+    Map<String, dynamic>? options,
+    bool persist = false,
+  }) async {
+    try {
+      final result = await _channel.invokeMethod('registerPrintAsset', {
+        'id': id,
+        if (imageData != null) 'imageData': _imageBytes(imageData),
+        if (text != null) 'text': text,
         'options': options ?? {},
+        'persist': persist,
+      });
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
+  /// Print an asset registered with [registerPrintAsset]
+  static Future<Map<String, dynamic>> printAsset(String id) async {
+    try {
+      final result = await _channel.invokeMethod('printAsset', {
+        'id': id,
+      });
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
+  /// Remove a registered asset, including its saved copy
+  static Future<Map<String, dynamic>> removePrintAsset(String id) async {
+    try {
+      final result = await _channel.invokeMethod('removePrintAsset', {
+        'id': id,
       });
       return Map<String, dynamic>.from(result);
     } on PlatformException catch (e) {
@@ -203,6 +559,164 @@ class PaxSdk {
     }
   }
 
+  // ============ PRINT JOB QUEUE ============
+
+  /// Stream of print job completion events
+  ///
+  /// Each event has the `jobId`, the `method`, a `status` of `completed` or
+  /// `failed`, the method's `result` and the job's `durationMs`.
+  static Stream<Map<String, dynamic>> get printJobEvents {
+    return _printJobEvents ??= _printJobEventChannel
+        .receiveBroadcastStream()
+        .map((event) => Map<String, dynamic>.from(event));
+  }
+
+  static void _ensurePrintJobListener() {
+    _printJobSubscription ??= printJobEvents.listen((event) {
+      final jobId = event['jobId'] as int;
+      final completer = _printJobCompleters.remove(jobId);
+      if (completer != null) {
+        completer.complete(event);
+      } else {
+        if (_finishedPrintJobs.length >= _maxFinishedPrintJobs) {
+          _finishedPrintJobs.remove(_finishedPrintJobs.keys.first);
+        }
+        _finishedPrintJobs[jobId] = event;
+      }
+    });
+  }
+
+  /// Queue a printer method (for example `printText` or `cutPaper`) as a job
+  ///
+  /// Returns as soon as the job is queued, with its `jobId`. Jobs run one at
+  /// a time in submission order; use [printJobResult] or [printJobEvents] to
+  /// get the outcome. When the queue is full the job is rejected
+  /// (`rejected: true`) or held until a slot frees up, see
+  /// [configurePrintQueue].
+  static Future<Map<String, dynamic>> submitPrintJob(
+    String method, {
+    Map<String, dynamic>? arguments,
+  }) async {
+    try {
+      _ensurePrintJobListener();
+      final result = await _channel.invokeMethod('submitPrintJob', {
+        'method': method,
+        'arguments': arguments ?? {},
+      });
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
+  /// Wait for a submitted print job to finish
+  static Future<Map<String, dynamic>> printJobResult(int jobId) {
+    _ensurePrintJobListener();
+    final finished = _finishedPrintJobs.remove(jobId);
+    if (finished != null) {
+      return Future.value(finished);
+    }
+    return _printJobCompleters
+        .putIfAbsent(jobId, () => Completer<Map<String, dynamic>>())
+        .future;
+  }
+
+  /// Configure the print queue capacity and overflow behaviour
+  ///
+  /// [overflow] is `reject` (default) or `block`.
+  static Future<Map<String, dynamic>> configurePrintQueue({
+    int capacity = 32,
+    String overflow = 'reject',
+  }) async {
+    try {
+      final result = await _channel.invokeMethod('configurePrintQueue', {
+        'capacity': capacity,
+        'overflow': overflow,
+      });
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
+  /// Get the number of queued jobs and the queue configuration
+  static Future<Map<String, dynamic>> getPrintQueueStatus() async {
+    try {
+      final result = await _channel.invokeMethod('getPrintQueueStatus');
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
+  /// Get hit, miss and size counters of the decoded image cache
+  ///
+  /// Images printed again with the same bytes and options (such as a logo on
+  /// every receipt) are served from this cache without decoding.
+  static Future<Map<String, dynamic>> getImageCacheStats() async {
+    try {
+      final result = await _channel.invokeMethod('getImageCacheStats');
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
+  /// Drop every image from the decoded image cache
+  static Future<Map<String, dynamic>> clearImageCache() async {
+    try {
+      final result = await _channel.invokeMethod('clearImageCache');
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
   // ============ ADVANCED PRINTER METHODS ============
 
   /// Set font size
@@ -423,6 +937,29 @@ class PaxSdk {
     }
   }
 
+  /// Set the print head width in dots that images and Arabic text are laid out for
+  ///
+  /// Defaults to 384, the width of the 58 mm heads in PAX's Android terminals.
+  static Future<Map<String, dynamic>> setPrintWidth(int dots) async {
+    try {
+      final result = await _channel.invokeMethod('setPrintWidth', {
+        'dots': dots,
+      });
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
   /// Get printer size
   static Future<Map<String, dynamic>> getPrinterSize() async {
     try {
@@ -529,15 +1066,20 @@ class PaxSdk {
   }
 
   /// Print bitmap with mono threshold
+  ///
+  /// Pass [dither] (`floyd_steinberg`, `atkinson`, `stucki` or the faster
+  /// parallel `bayer`) to dither the image instead of applying [grayThreshold].
   static Future<Map<String, dynamic>> printBitmapWithMonoThreshold(
     List<int> imageData, {
     int grayThreshold = 128,
+    String? dither,
   }) async {
     try {
       final result =
           await _channel.invokeMethod('printBitmapWithMonoThreshold', {
-        'imageData': imageData,
+        'imageData': _imageBytes(imageData),
         'grayThreshold': grayThreshold,
+        if (dither != null) 'dither': dither,
       });
       return Map<String, dynamic>.from(result);
     } on PlatformException catch (e) {
@@ -559,7 +1101,7 @@ class PaxSdk {
       List<int> imageData) async {
     try {
       final result = await _channel.invokeMethod('printColorBitmap', {
-        'imageData': imageData,
+        'imageData': _imageBytes(imageData),
       });
       return Map<String, dynamic>.from(result);
     } on PlatformException catch (e) {
@@ -584,7 +1126,7 @@ class PaxSdk {
     try {
       final result =
           await _channel.invokeMethod('printColorBitmapWithMonoThreshold', {
-        'imageData': imageData,
+        'imageData': _imageBytes(imageData),
         'grayThreshold': grayThreshold,
       });
       return Map<String, dynamic>.from(result);
@@ -637,6 +1179,25 @@ class PaxSdk {
     }
   }
 
+  /// Get cached device capabilities (PAX SDK, NFC reader and printer support)
+  static Future<Map<String, dynamic>> getCapabilities() async {
+    try {
+      final result = await _channel.invokeMethod('getCapabilities');
+      return Map<String, dynamic>.from(result);
+    } on PlatformException catch (e) {
+      return {
+        'success': false,
+        'error': 'Platform error: ${e.message}',
+        'code': e.code,
+      };
+    } catch (e) {
+      return {
+        'success': false,
+        'error': 'Unexpected error: $e',
+      };
+    }
+  }
+
   /// Test native library loading
   static Future<Map<String, dynamic>> testNativeLibraryLoading() async {
     try {
@@ -656,3 +1217,167 @@ class PaxSdk {
     }
   }
 }
+
+/// Message codec matching the Android plugin's PaxResultCodec.
+///
+/// Card results, print results and job/card events arrive as a type byte and
+/// positional fields; they are rebuilt here into the same maps the plugin has
+/// always returned, so callers see no difference.
+class PaxResultCodec extends StandardMessageCodec {
+  const PaxResultCodec();
+
+  static const int _cardResult = 128;
+  static const int _printResult = 129;
+  static const int _printerStatus = 130;
+  static const int _printJobEvent = 131;
+  static const int _cardEvent = 132;
+
+  @override
+  dynamic readValueOfType(int type, ReadBuffer buffer) {
+    switch (type) {
+      case _cardResult:
+        return _readCard(buffer);
+      case _printResult:
+        final success = readValue(buffer) as bool;
+        final statusCode = readValue(buffer) as int?;
+        final message = readValue(buffer) as String?;
+        final error = readValue(buffer) as String?;
+        return <String, dynamic>{
+          'success': success,
+          if (message != null) 'message': message,
+          if (error != null) 'error': error,
+          if (statusCode != null) 'statusCode': statusCode,
+        };
+      case _printerStatus:
+        final success = readValue(buffer) as bool;
+        final status = readValue(buffer) as int?;
+        final statusMessage = readValue(buffer) as String?;
+        readValue(buffer); // error, unused for status reports
+        return <String, dynamic>{
+          'success': success,
+          'status': status,
+          'statusMessage': statusMessage,
+        };
+      case _printJobEvent:
+        final jobId = readValue(buffer) as int;
+        final method = readValue(buffer) as String?;
+        final status = readValue(buffer) as String?;
+        final result = readValue(buffer);
+        final error = readValue(buffer) as String?;
+        final durationMs = readValue(buffer) as int;
+        return <String, dynamic>{
+          'jobId': jobId,
+          'method': method,
+          'status': status,
+          if (result != null) 'result': result,
+          if (error != null) 'error': error,
+          'durationMs': durationMs,
+        };
+      case _cardEvent:
+        final event = readValue(buffer) as String;
+        final uid = readValue(buffer) as String?;
+        final timestamp = readValue(buffer) as int;
+        final card = readValue(buffer) as Map<String, dynamic>?;
+        return <String, dynamic>{
+          ...?card,
+          'event': event,
+          'uid': uid,
+          'timestamp': timestamp,
+        };
+      default:
+        return super.readValueOfType(type, buffer);
+    }
+  }
+
+  Map<String, dynamic> _readCard(ReadBuffer buffer) {
+    final success = readValue(buffer) as bool;
+    final cancelled = readValue(buffer) as bool;
+    final error = readValue(buffer) as String?;
+    final uid = readValue(buffer) as Uint8List?;
+    final cardInfo = readValue(buffer) as String?;
+    final cardType = readValue(buffer) as String?;
+    final manufacturer = readValue(buffer) as String?;
+    final block0 = readValue(buffer) as Uint8List?;
+    final keyIndex = readValue(buffer) as int;
+    final block0Error = readValue(buffer) as String?;
+    final authAttempted = readValue(buffer) as bool;
+    final authError = readValue(buffer) as String?;
+
+    if (!success) {
+      return <String, dynamic>{
+        'success': false,
+        if (cancelled) 'cancelled': true,
+        'error': error,
+      };
+    }
+
+    final cardData = <String, dynamic>{};
+    if (uid != null) {
+      cardData['uid'] = _hex(uid);
+      cardData['uidLength'] = uid.length;
+      cardData['uidBytes'] = uid;
+      cardData['cardType'] = <String, dynamic>{
+        'cardType': cardType,
+        'manufacturer': manufacturer,
+        'uidLength': uid.length,
+        'firstByte': _hexByte(uid[0]),
+      };
+    } else {
+      cardData['error'] = 'No serial information available';
+    }
+    if (cardInfo != null) {
+      cardData['cardInfoObject'] = cardInfo;
+    }
+
+    final Map<String, dynamic> manufacturerData;
+    if (block0 != null && keyIndex < 0) {
+      manufacturerData = {
+        'block0Data': _hex(block0),
+        'block0Bytes': block0,
+        'parsedData': _parseManufacturerBlock(block0),
+      };
+    } else {
+      manufacturerData = {'error': block0Error};
+      if (authAttempted) {
+        manufacturerData['authResult'] = block0 != null
+            ? <String, dynamic>{
+                'success': true,
+                'keyIndex': keyIndex,
+                'data': _hex(block0),
+                'dataBytes': block0,
+                'parsedData': _parseManufacturerBlock(block0),
+              }
+            : <String, dynamic>{'error': authError};
+      }
+    }
+
+    return <String, dynamic>{
+      'success': true,
+      'cardData': cardData,
+      'manufacturerData': manufacturerData,
+    };
+  }
+
+  /// Parse the UID, BCC, SAK and ATQA out of a MIFARE block 0
+  static Map<String, dynamic> _parseManufacturerBlock(Uint8List data) {
+    if (data.length < 16) {
+      return {'error': 'Invalid data length'};
+    }
+    final embeddedUid = Uint8List.sublistView(data, 0, 4);
+    return <String, dynamic>{
+      'embeddedUid': _hex(embeddedUid),
+      'embeddedUidBytes': embeddedUid,
+      'bcc': _hexByte(data[4]),
+      'bccValue': data[4].toSigned(8),
+      'sak': _hexByte(data[5]),
+      'sakValue': data[5].toSigned(8),
+      'atqa': _hexByte(data[7]) + _hexByte(data[6]),
+      'atqaBytes': Uint8List.fromList([data[6], data[7]]),
+    };
+  }
+
+  static String _hexByte(int value) =>
+      value.toRadixString(16).padLeft(2, '0').toUpperCase();
+
+  static String _hex(List<int> bytes) => bytes.map(_hexByte).join(' ');
+}